@@ -0,0 +1,58 @@
+#!/bin/bash
+
+# Compara a latência (p95/p99) das requisições autenticadas com e sem o cache de tokens JWT verificados.
+# Requer: MySQL do docker-compose em execução, k6 instalado e o JAR construído (mvn package).
+# Variáveis opcionais: VUS (padrão 200), DURACAO (padrão 2m), OFICINA_JWT_CACHE_TAMANHO (padrão 10000)
+
+set -e
+
+DIRETORIO=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIRETORIO/../target/quarkus-app/quarkus-run.jar"
+RESULTADOS="$DIRETORIO/resultados"
+BASE_URL=${BASE_URL:-http://localhost:8080}
+
+if ! command -v k6 &> /dev/null; then
+    echo "❌ k6 não encontrado. Instale em https://k6.io/docs/get-started/installation/"
+    exit 1
+fi
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ JAR não encontrado. Execute ./mvnw package -DskipTests primeiro."
+    exit 1
+fi
+
+mkdir -p "$RESULTADOS"
+
+executar() {
+    local modo=$1
+    local tamanho=$2
+
+    echo "🚀 Iniciando aplicação (cache de tokens: $tamanho)..."
+    OFICINA_JWT_CACHE_TAMANHO=$tamanho java -jar "$JAR" > "$RESULTADOS/app-$modo.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "$BASE_URL/health/ready" > /dev/null; do
+        sleep 1
+    done
+
+    echo "📈 Executando carga ($modo)..."
+    k6 run -e BASE_URL="$BASE_URL" --summary-export "$RESULTADOS/$modo.json" "$DIRETORIO/oficina.js" \
+        | tee "$RESULTADOS/$modo.txt"
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+executar sem-cache-jwt 0
+executar cache-jwt "${OFICINA_JWT_CACHE_TAMANHO:-10000}"
+
+echo "📊 Resumo (req/s, p95 e p99 em ms):"
+for modo in sem-cache-jwt cache-jwt; do
+    if command -v jq &> /dev/null; then
+        jq -r --arg modo "$modo" \
+            '"\($modo): \(.metrics.http_reqs.rate | floor) req/s, p95 \(.metrics.http_req_duration["p(95)"]), p99 \(.metrics.http_req_duration["p(99)"])"' \
+            "$RESULTADOS/$modo.json"
+    else
+        echo "$modo: veja $RESULTADOS/$modo.txt"
+    fi
+done
@@ -0,0 +1,58 @@
+#!/bin/bash
+
+# Compara throughput e latência dos recursos REST com virtual threads e com worker threads.
+# Requer: MySQL do docker-compose em execução, k6 instalado e o JAR construído (mvn package).
+# Variáveis opcionais: VUS (padrão 200), DURACAO (padrão 2m), OFICINA_DB_POOL_MAX (padrão 30)
+
+set -e
+
+DIRETORIO=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIRETORIO/../target/quarkus-app/quarkus-run.jar"
+RESULTADOS="$DIRETORIO/resultados"
+BASE_URL=${BASE_URL:-http://localhost:8080}
+
+if ! command -v k6 &> /dev/null; then
+    echo "❌ k6 não encontrado. Instale em https://k6.io/docs/get-started/installation/"
+    exit 1
+fi
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ JAR não encontrado. Execute ./mvnw package -DskipTests primeiro."
+    exit 1
+fi
+
+mkdir -p "$RESULTADOS"
+
+executar() {
+    local modo=$1
+    local virtual=$2
+
+    echo "🚀 Iniciando aplicação (virtual threads: $virtual)..."
+    OFICINA_VIRTUAL_THREADS=$virtual java -jar "$JAR" > "$RESULTADOS/app-$modo.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "$BASE_URL/health/ready" > /dev/null; do
+        sleep 1
+    done
+
+    echo "📈 Executando carga ($modo)..."
+    k6 run -e BASE_URL="$BASE_URL" --summary-export "$RESULTADOS/$modo.json" "$DIRETORIO/oficina.js" \
+        | tee "$RESULTADOS/$modo.txt"
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+executar workers false
+executar virtual true
+
+echo "📊 Resumo (req/s, p95 e p99 em ms):"
+for modo in workers virtual; do
+    if command -v jq &> /dev/null; then
+        jq -r --arg modo "$modo" \
+            '"\($modo): \(.metrics.http_reqs.rate | floor) req/s, p95 \(.metrics.http_req_duration["p(95)"]), p99 \(.metrics.http_req_duration["p(99)"])"' \
+            "$RESULTADOS/$modo.json"
+    else
+        echo "$modo: veja $RESULTADOS/$modo.txt"
+    fi
+done
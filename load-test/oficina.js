@@ -0,0 +1,56 @@
+// Carga de leitura e escrita sobre os recursos REST bloqueantes (JDBC via Panache).
+// Uso: k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 load-test/oficina.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'admin';
+const SENHA = __ENV.SENHA || 'admin123';
+
+export const options = {
+    scenarios: {
+        leitura_escrita: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.VUS || 200) },
+                { duration: __ENV.DURACAO || '2m', target: Number(__ENV.VUS || 200) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const resposta = http.post(`${BASE_URL}/auth/login`,
+        JSON.stringify({ username: USERNAME, password: SENHA }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(resposta, { 'login 200': (r) => r.status === 200 });
+    return { token: resposta.body };
+}
+
+export default function (dados) {
+    const params = { headers: { Authorization: `Bearer ${dados.token}` } };
+
+    const sorteio = Math.random();
+    if (sorteio < 0.35) {
+        check(http.get(`${BASE_URL}/api/ordens-servico?size=20`, params),
+            { 'ordens 200': (r) => r.status === 200 });
+    } else if (sorteio < 0.55) {
+        check(http.get(`${BASE_URL}/api/clientes`, params),
+            { 'clientes 200': (r) => r.status === 200 });
+    } else if (sorteio < 0.70) {
+        check(http.get(`${BASE_URL}/api/veiculos`, params),
+            { 'veiculos 200': (r) => r.status === 200 });
+    } else if (sorteio < 0.85) {
+        check(http.get(`${BASE_URL}/api/pecas`, params),
+            { 'pecas 200': (r) => r.status === 200 });
+    } else {
+        check(http.get(`${BASE_URL}/api/servicos/ativos`, params),
+            { 'servicos 200': (r) => r.status === 200 });
+    }
+}
@@ -0,0 +1,28 @@
+package com.grupo110.oficina.application.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AdicionarItensRequest {
+    
+    // Itens informados por servicoId/pecaId e quantidade; sem valorUnitario usa o preço do catálogo
+    private List<ItemServicoDTO> itensServico = new ArrayList<>();
+    private List<ItemPecaDTO> itensPeca = new ArrayList<>();
+
+    // Getters e Setters
+    public List<ItemServicoDTO> getItensServico() {
+        return itensServico;
+    }
+
+    public void setItensServico(List<ItemServicoDTO> itensServico) {
+        this.itensServico = itensServico;
+    }
+
+    public List<ItemPecaDTO> getItensPeca() {
+        return itensPeca;
+    }
+
+    public void setItensPeca(List<ItemPecaDTO> itensPeca) {
+        this.itensPeca = itensPeca;
+    }
+}
@@ -0,0 +1,39 @@
+package com.grupo110.oficina.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class MovimentacaoEstoqueDTO {
+    
+    @NotBlank(message = "Código da peça é obrigatório")
+    private String codigo;
+    
+    // Positiva para entrada e negativa para saída
+    @NotNull(message = "Quantidade é obrigatória")
+    private Integer quantidade;
+    
+    // Construtores
+    public MovimentacaoEstoqueDTO() {}
+    
+    public MovimentacaoEstoqueDTO(String codigo, Integer quantidade) {
+        this.codigo = codigo;
+        this.quantidade = quantidade;
+    }
+    
+    // Getters e Setters
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+    
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+}
@@ -49,6 +49,40 @@ public class OrdemServicoDTO {
     public OrdemServicoDTO() {}
     
     public OrdemServicoDTO(OrdemServico ordemServico) {
+        preencherResumo(ordemServico);
+        
+        // Converter itens de serviço se disponível
+        if (ordemServico.getItensServico() != null && !ordemServico.getItensServico().isEmpty()) {
+            this.itensServico = ordemServico.getItensServico().stream()
+                    .map(ItemServicoDTO::new)
+                    .collect(Collectors.toList());
+        }
+        
+        // Converter itens de peça se disponível
+        if (ordemServico.getItensPeca() != null && !ordemServico.getItensPeca().isEmpty()) {
+            this.itensPeca = ordemServico.getItensPeca().stream()
+                    .map(ItemPecaDTO::new)
+                    .collect(Collectors.toList());
+        }
+        
+        // Converter histórico de status se disponível
+        if (ordemServico.getHistoricoStatus() != null && !ordemServico.getHistoricoStatus().isEmpty()) {
+            this.historicoStatus = ordemServico.getHistoricoStatus().stream()
+                    .map(HistoricoStatusDTO::new)
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    /**
+     * Cria a projeção resumida (sem itens e histórico), usada nas listagens
+     */
+    public static OrdemServicoDTO resumo(OrdemServico ordemServico) {
+        OrdemServicoDTO dto = new OrdemServicoDTO();
+        dto.preencherResumo(ordemServico);
+        return dto;
+    }
+    
+    private void preencherResumo(OrdemServico ordemServico) {
         this.id = ordemServico.getId();
         this.numeroOS = ordemServico.getNumeroOS();
         this.status = ordemServico.getStatus().name();
@@ -76,27 +110,6 @@ public class OrdemServicoDTO {
             this.veiculoPlaca = ordemServico.getVeiculo().getPlaca();
             this.veiculoModelo = ordemServico.getVeiculo().getModelo();
         }
-        
-        // Converter itens de serviço se disponível
-        if (ordemServico.getItensServico() != null && !ordemServico.getItensServico().isEmpty()) {
-            this.itensServico = ordemServico.getItensServico().stream()
-                    .map(ItemServicoDTO::new)
-                    .collect(Collectors.toList());
-        }
-        
-        // Converter itens de peça se disponível
-        if (ordemServico.getItensPeca() != null && !ordemServico.getItensPeca().isEmpty()) {
-            this.itensPeca = ordemServico.getItensPeca().stream()
-                    .map(ItemPecaDTO::new)
-                    .collect(Collectors.toList());
-        }
-        
-        // Converter histórico de status se disponível
-        if (ordemServico.getHistoricoStatus() != null && !ordemServico.getHistoricoStatus().isEmpty()) {
-            this.historicoStatus = ordemServico.getHistoricoStatus().stream()
-                    .map(HistoricoStatusDTO::new)
-                    .collect(Collectors.toList());
-        }
     }
     
     // Método para converter DTO para entidade
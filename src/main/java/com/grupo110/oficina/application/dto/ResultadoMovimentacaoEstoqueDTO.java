@@ -0,0 +1,84 @@
+package com.grupo110.oficina.application.dto;
+
+public class ResultadoMovimentacaoEstoqueDTO {
+    
+    private String codigo;
+    private Integer quantidade;
+    private boolean sucesso;
+    private Long pecaId;
+    private Integer quantidadeEstoque;
+    private String erro;
+    
+    // Construtores
+    public ResultadoMovimentacaoEstoqueDTO() {}
+    
+    public static ResultadoMovimentacaoEstoqueDTO aplicada(MovimentacaoEstoqueDTO movimentacao, Long pecaId,
+                                                           Integer quantidadeEstoque) {
+        ResultadoMovimentacaoEstoqueDTO resultado = new ResultadoMovimentacaoEstoqueDTO(movimentacao);
+        resultado.sucesso = true;
+        resultado.pecaId = pecaId;
+        resultado.quantidadeEstoque = quantidadeEstoque;
+        return resultado;
+    }
+    
+    public static ResultadoMovimentacaoEstoqueDTO rejeitada(MovimentacaoEstoqueDTO movimentacao, String erro) {
+        ResultadoMovimentacaoEstoqueDTO resultado = new ResultadoMovimentacaoEstoqueDTO(movimentacao);
+        resultado.sucesso = false;
+        resultado.erro = erro;
+        return resultado;
+    }
+    
+    private ResultadoMovimentacaoEstoqueDTO(MovimentacaoEstoqueDTO movimentacao) {
+        this.codigo = movimentacao.getCodigo();
+        this.quantidade = movimentacao.getQuantidade();
+    }
+    
+    // Getters e Setters
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+    
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+    
+    public boolean isSucesso() {
+        return sucesso;
+    }
+    
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+    
+    public Long getPecaId() {
+        return pecaId;
+    }
+    
+    public void setPecaId(Long pecaId) {
+        this.pecaId = pecaId;
+    }
+    
+    public Integer getQuantidadeEstoque() {
+        return quantidadeEstoque;
+    }
+    
+    public void setQuantidadeEstoque(Integer quantidadeEstoque) {
+        this.quantidadeEstoque = quantidadeEstoque;
+    }
+    
+    public String getErro() {
+        return erro;
+    }
+    
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+}
@@ -0,0 +1,44 @@
+package com.grupo110.oficina.application.dto;
+
+import java.time.LocalDateTime;
+
+public class SaldoEstoqueDTO {
+    
+    private Long pecaId;
+    private LocalDateTime data;
+    private Long quantidade;
+    
+    // Construtores
+    public SaldoEstoqueDTO() {}
+    
+    public SaldoEstoqueDTO(Long pecaId, LocalDateTime data, Long quantidade) {
+        this.pecaId = pecaId;
+        this.data = data;
+        this.quantidade = quantidade;
+    }
+    
+    // Getters e Setters
+    public Long getPecaId() {
+        return pecaId;
+    }
+    
+    public void setPecaId(Long pecaId) {
+        this.pecaId = pecaId;
+    }
+    
+    public LocalDateTime getData() {
+        return data;
+    }
+    
+    public void setData(LocalDateTime data) {
+        this.data = data;
+    }
+    
+    public Long getQuantidade() {
+        return quantidade;
+    }
+    
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+}
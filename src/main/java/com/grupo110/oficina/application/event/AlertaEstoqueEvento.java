@@ -0,0 +1,58 @@
+package com.grupo110.oficina.application.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Disparado pelo MonitorEstoqueService quando uma peça muda de situação de estoque
+ * (fica abaixo do mínimo, zera ou volta ao normal). Também é enviado ao stream SSE do balcão.
+ * Quantidades nulas quando a mudança foi detectada pela reconciliação com o banco.
+ */
+public class AlertaEstoqueEvento {
+
+    public enum SituacaoEstoque {
+        NORMAL,
+        ABAIXO_DO_MINIMO,
+        SEM_ESTOQUE
+    }
+
+    private final Long pecaId;
+    private final SituacaoEstoque situacao;
+    private final SituacaoEstoque situacaoAnterior;
+    private final Integer quantidadeEstoque;
+    private final Integer quantidadeMinima;
+    private final LocalDateTime dataAlteracao;
+
+    public AlertaEstoqueEvento(Long pecaId, SituacaoEstoque situacao, SituacaoEstoque situacaoAnterior,
+                               Integer quantidadeEstoque, Integer quantidadeMinima) {
+        this.pecaId = pecaId;
+        this.situacao = situacao;
+        this.situacaoAnterior = situacaoAnterior;
+        this.quantidadeEstoque = quantidadeEstoque;
+        this.quantidadeMinima = quantidadeMinima;
+        this.dataAlteracao = LocalDateTime.now();
+    }
+
+    public Long getPecaId() {
+        return pecaId;
+    }
+
+    public SituacaoEstoque getSituacao() {
+        return situacao;
+    }
+
+    public SituacaoEstoque getSituacaoAnterior() {
+        return situacaoAnterior;
+    }
+
+    public Integer getQuantidadeEstoque() {
+        return quantidadeEstoque;
+    }
+
+    public Integer getQuantidadeMinima() {
+        return quantidadeMinima;
+    }
+
+    public LocalDateTime getDataAlteracao() {
+        return dataAlteracao;
+    }
+}
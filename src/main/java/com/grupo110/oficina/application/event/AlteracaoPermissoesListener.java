@@ -0,0 +1,22 @@
+package com.grupo110.oficina.application.event;
+
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Listener de Perfil e Permissao (registrado em META-INF/orm.xml): qualquer gravação feita pelo
+ * Hibernate, por qualquer serviço, dispara PermissoesAlteradasEvento, observado após o fim da transação
+ */
+public class AlteracaoPermissoesListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void aoGravar(Object entidade) {
+        CDI.current().getBeanManager().getEvent()
+                .select(PermissoesAlteradasEvento.class)
+                .fire(new PermissoesAlteradasEvento());
+    }
+}
@@ -0,0 +1,64 @@
+package com.grupo110.oficina.application.event;
+
+import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.domain.model.Servico;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Disparado pelo OrdemServicoService quando uma ordem é criada, atualizada, muda de status ou é removida.
+ * statusAnterior é null na criação e statusNovo é null na remoção; os demais campos são os valores
+ * após a alteração. categoriasServico só é preenchido para ordens em execução.
+ */
+public class OrdemServicoAlteradaEvento {
+
+    private final Long ordemServicoId;
+    private final OrdemServico.StatusOrdemServico statusAnterior;
+    private final OrdemServico.StatusOrdemServico statusNovo;
+    private final LocalDateTime prazoEntrega;
+    private final LocalDateTime dataInicioExecucao;
+    private final Set<Servico.CategoriaServico> categoriasServico;
+
+    public OrdemServicoAlteradaEvento(Long ordemServicoId,
+                                      OrdemServico.StatusOrdemServico statusAnterior,
+                                      OrdemServico.StatusOrdemServico statusNovo,
+                                      LocalDateTime prazoEntrega,
+                                      LocalDateTime dataInicioExecucao,
+                                      Set<Servico.CategoriaServico> categoriasServico) {
+        this.ordemServicoId = ordemServicoId;
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+        this.prazoEntrega = prazoEntrega;
+        this.dataInicioExecucao = dataInicioExecucao;
+        this.categoriasServico = Set.copyOf(categoriasServico);
+    }
+
+    public Long getOrdemServicoId() {
+        return ordemServicoId;
+    }
+
+    public OrdemServico.StatusOrdemServico getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public OrdemServico.StatusOrdemServico getStatusNovo() {
+        return statusNovo;
+    }
+
+    public LocalDateTime getPrazoEntrega() {
+        return prazoEntrega;
+    }
+
+    public LocalDateTime getDataInicioExecucao() {
+        return dataInicioExecucao;
+    }
+
+    public Set<Servico.CategoriaServico> getCategoriasServico() {
+        return categoriasServico;
+    }
+
+    public boolean isMudancaDeStatus() {
+        return statusAnterior != statusNovo;
+    }
+}
@@ -0,0 +1,26 @@
+package com.grupo110.oficina.application.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Disparado pela FilaOrdensAtrasadasService quando o prazo de entrega de uma ordem em aberto vence.
+ * Ponto de extensão para notificações (push, e-mail); os observadores não devem bloquear.
+ */
+public class OrdemServicoAtrasadaEvento {
+
+    private final Long ordemServicoId;
+    private final LocalDateTime prazoEntrega;
+
+    public OrdemServicoAtrasadaEvento(Long ordemServicoId, LocalDateTime prazoEntrega) {
+        this.ordemServicoId = ordemServicoId;
+        this.prazoEntrega = prazoEntrega;
+    }
+
+    public Long getOrdemServicoId() {
+        return ordemServicoId;
+    }
+
+    public LocalDateTime getPrazoEntrega() {
+        return prazoEntrega;
+    }
+}
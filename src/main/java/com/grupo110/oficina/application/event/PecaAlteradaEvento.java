@@ -0,0 +1,88 @@
+package com.grupo110.oficina.application.event;
+
+import com.grupo110.oficina.domain.model.Peca;
+
+/**
+ * Disparado pelo PecaService (e pela baixa de peças das ordens) a cada alteração de uma peça:
+ * cadastro, estoque, quantidade mínima ou situação, com os valores já gravados.
+ */
+public class PecaAlteradaEvento {
+
+    private final Long pecaId;
+    private final Integer quantidadeEstoque;
+    private final Integer quantidadeMinima;
+    private final boolean ativo;
+
+    // Dados de catálogo (índice de busca e de compatibilidade)
+    private final String codigo;
+    private final String nome;
+    private final String descricao;
+    private final String fabricante;
+    private final String marcaVeiculo;
+    private final String modeloVeiculo;
+    private final Integer anoInicio;
+    private final Integer anoFim;
+
+    public PecaAlteradaEvento(Peca peca) {
+        this.pecaId = peca.getId();
+        this.quantidadeEstoque = peca.getQuantidadeEstoque();
+        this.quantidadeMinima = peca.getQuantidadeMinima();
+        this.ativo = Boolean.TRUE.equals(peca.getAtivo());
+        this.codigo = peca.getCodigo();
+        this.nome = peca.getNome();
+        this.descricao = peca.getDescricao();
+        this.fabricante = peca.getFabricante();
+        this.marcaVeiculo = peca.getMarcaVeiculo();
+        this.modeloVeiculo = peca.getModeloVeiculo();
+        this.anoInicio = peca.getAnoInicio();
+        this.anoFim = peca.getAnoFim();
+    }
+
+    public Long getPecaId() {
+        return pecaId;
+    }
+
+    public Integer getQuantidadeEstoque() {
+        return quantidadeEstoque;
+    }
+
+    public Integer getQuantidadeMinima() {
+        return quantidadeMinima;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getFabricante() {
+        return fabricante;
+    }
+
+    public String getMarcaVeiculo() {
+        return marcaVeiculo;
+    }
+
+    public String getModeloVeiculo() {
+        return modeloVeiculo;
+    }
+
+    public Integer getAnoInicio() {
+        return anoInicio;
+    }
+
+    public Integer getAnoFim() {
+        return anoFim;
+    }
+}
@@ -0,0 +1,8 @@
+package com.grupo110.oficina.application.event;
+
+/**
+ * Disparado quando um perfil ou uma permissão é criado, alterado ou removido (inclusive as permissões
+ * de um perfil). Afeta a autorização de todos os usuários do perfil, então não identifica usuários.
+ */
+public class PermissoesAlteradasEvento {
+}
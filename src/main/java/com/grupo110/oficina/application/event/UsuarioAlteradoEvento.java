@@ -0,0 +1,24 @@
+package com.grupo110.oficina.application.event;
+
+/**
+ * Disparado pelo UsuarioService quando dados que afetam a autorização do usuário mudam
+ * (perfil, situação ativo/inativo, remoção)
+ */
+public class UsuarioAlteradoEvento {
+
+    private final Long usuarioId;
+    private final boolean ativo;
+
+    public UsuarioAlteradoEvento(Long usuarioId, boolean ativo) {
+        this.usuarioId = usuarioId;
+        this.ativo = ativo;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
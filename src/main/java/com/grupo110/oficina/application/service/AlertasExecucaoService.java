@@ -0,0 +1,316 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.OrdemServicoAlteradaEvento;
+import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.domain.model.Servico;
+import com.grupo110.oficina.infrastructure.repository.OrdemServicoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta ordens paradas em execução sem consultar o banco a cada verificação.
+ * Mantém um índice em memória das ordens EM_EXECUCAO ordenado pelo momento em que cada uma
+ * ultrapassa o seu limite (início da execução + limite da categoria de serviço mais restritiva),
+ * então cada verificação só percorre as ordens que acabaram de passar do limite.
+ * O índice é alimentado pelos eventos de alteração de ordem, montado na inicialização a partir
+ * das ordens em execução e reconciliado periodicamente (alterações feitas por outra instância ou
+ * direto no banco). As operações no índice só mexem em memória e são serializadas
+ * (synchronized), sem I/O dentro. Limites: oficina.os.execucao.limite.padrao e
+ * oficina.os.execucao.limite.<categoria> (ex.: oficina.os.execucao.limite.funilaria=10d).
+ */
+@ApplicationScoped
+public class AlertasExecucaoService {
+
+    static final String CATEGORIA_PADRAO = "PADRAO";
+
+    @Inject
+    OrdemServicoRepository ordemServicoRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "oficina.os.execucao.limite.padrao", defaultValue = "3d")
+    Duration limitePadrao;
+
+    private final Map<Servico.CategoriaServico, Duration> limites = new EnumMap<>(Servico.CategoriaServico.class);
+
+    /**
+     * Ordens em execução ainda dentro do limite, ordenadas pelo momento do alerta
+     */
+    private final ConcurrentSkipListSet<Execucao> pendentes = new ConcurrentSkipListSet<>(Execucao.ORDEM);
+
+    /**
+     * Todas as ordens em execução, por ID
+     */
+    private final Map<Long, Execucao> emExecucao = new ConcurrentHashMap<>();
+
+    /**
+     * Alertas ativos, por ID da ordem
+     */
+    private final Map<Long, Execucao> alertas = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> alertasPorCategoria = new ConcurrentHashMap<>();
+
+    private final EventosDuranteReconstrucao<OrdemServicoAlteradaEvento> eventosDuranteReconciliacao =
+            new EventosDuranteReconstrucao<>();
+
+    @PostConstruct
+    void iniciar() {
+        for (Servico.CategoriaServico categoria : Servico.CategoriaServico.values()) {
+            config.getOptionalValue("oficina.os.execucao.limite." + categoria.name().toLowerCase(), Duration.class)
+                    .ifPresent(limite -> limites.put(categoria, limite));
+            registrarGauge(categoria.name());
+        }
+        registrarGauge(CATEGORIA_PADRAO);
+        registry.gaugeMapSize("oficina.os.execucao.em-andamento", Tags.empty(), emExecucao);
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        reconciliar();
+    }
+
+    /**
+     * Acerta o índice com as ordens em execução no banco (consulta pelo índice de status, não pela
+     * tabela inteira). As alterações recebidas durante a leitura são aplicadas sobre o retrato antes
+     * da comparação; ordens cujo início e limite não mudaram mantêm a posição e o alerta.
+     */
+    @Scheduled(every = "${oficina.os.execucao.reconciliacao:5m}", delayed = "${oficina.os.execucao.reconciliacao:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void reconciliar() {
+        synchronized (this) {
+            eventosDuranteReconciliacao.iniciar();
+        }
+        Map<Long, Set<Servico.CategoriaServico>> categorias;
+        Map<Long, LocalDateTime> inicios;
+        try {
+            categorias = ordemServicoRepository.findCategoriasEmExecucao();
+            inicios = new HashMap<>(ordemServicoRepository.findIniciosEmExecucao());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                eventosDuranteReconciliacao.concluir();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            Map<Long, Set<Servico.CategoriaServico>> categoriasAtuais = new HashMap<>(categorias);
+            for (OrdemServicoAlteradaEvento evento : eventosDuranteReconciliacao.concluir()) {
+                if (emExecucao(evento)) {
+                    inicios.put(evento.getOrdemServicoId(), evento.getDataInicioExecucao());
+                    categoriasAtuais.put(evento.getOrdemServicoId(), evento.getCategoriasServico());
+                } else {
+                    inicios.remove(evento.getOrdemServicoId());
+                }
+            }
+            new ArrayList<>(emExecucao.keySet()).stream()
+                    .filter(id -> !inicios.containsKey(id))
+                    .forEach(this::remover);
+            inicios.forEach((id, inicio) -> atualizar(id, inicio, categoriasAtuais.getOrDefault(id, Set.of())));
+        }
+        verificar();
+    }
+
+    /**
+     * Aplica a alteração somente depois que a transação foi confirmada
+     */
+    void aoAlterarOrdem(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrdemServicoAlteradaEvento evento) {
+        synchronized (this) {
+            if (emExecucao(evento)) {
+                atualizar(evento.getOrdemServicoId(), evento.getDataInicioExecucao(), evento.getCategoriasServico());
+            } else {
+                remover(evento.getOrdemServicoId());
+            }
+            eventosDuranteReconciliacao.registrar(evento);
+        }
+    }
+
+    private static boolean emExecucao(OrdemServicoAlteradaEvento evento) {
+        return evento.getStatusNovo() == OrdemServico.StatusOrdemServico.EM_EXECUCAO
+                && evento.getDataInicioExecucao() != null;
+    }
+
+    /**
+     * Gera alertas para as ordens que passaram do limite desde a última verificação
+     */
+    @Scheduled(every = "${oficina.os.execucao.verificacao:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    synchronized void verificar() {
+        LocalDateTime agora = LocalDateTime.now();
+        Execucao primeira;
+        while ((primeira = pendentes.pollFirst()) != null) {
+            if (primeira.alertaEm.isAfter(agora)) {
+                pendentes.add(primeira);
+                break;
+            }
+            // Só alerta se a ordem não foi reposicionada ou removida nesse meio tempo
+            if (emExecucao.get(primeira.ordemServicoId) == primeira) {
+                alertas.put(primeira.ordemServicoId, primeira);
+                alertasPorCategoria.get(primeira.categoria).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Alertas ativos, da ordem parada há mais tempo para a mais recente
+     */
+    public List<AlertaExecucao> listarAlertas() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<AlertaExecucao> lista = new ArrayList<>(alertas.size());
+        alertas.values().stream()
+                .sorted(Comparator.comparing((Execucao execucao) -> execucao.inicio)
+                        .thenComparing(execucao -> execucao.ordemServicoId))
+                .forEach(execucao -> lista.add(new AlertaExecucao(execucao, agora)));
+        return lista;
+    }
+
+    /**
+     * IDs das ordens em execução iniciadas antes da data limite
+     */
+    public List<Long> listarIdsIniciadasAntesDe(LocalDateTime dataLimite) {
+        return emExecucao.values().stream()
+                .filter(execucao -> execucao.inicio.isBefore(dataLimite))
+                .sorted(Comparator.comparing((Execucao execucao) -> execucao.inicio))
+                .map(execucao -> execucao.ordemServicoId)
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void atualizar(Long ordemServicoId, LocalDateTime inicio, Set<Servico.CategoriaServico> categorias) {
+        // Menor limite entre as categorias da ordem (sem limite próprio, a categoria usa o padrão);
+        // ordem sem categorias fica com o padrão. Percorre na ordem do enum para o empate ser estável.
+        String categoria = CATEGORIA_PADRAO;
+        Duration limite = null;
+        for (Servico.CategoriaServico candidata : Servico.CategoriaServico.values()) {
+            if (!categorias.contains(candidata)) {
+                continue;
+            }
+            Duration limiteCategoria = limites.getOrDefault(candidata, limitePadrao);
+            if (limite == null || limiteCategoria.compareTo(limite) < 0) {
+                categoria = candidata.name();
+                limite = limiteCategoria;
+            }
+        }
+        if (limite == null) {
+            limite = limitePadrao;
+        }
+
+        Execucao anterior = emExecucao.get(ordemServicoId);
+        if (anterior != null && anterior.inicio.equals(inicio) && anterior.categoria.equals(categoria)
+                && anterior.limite.equals(limite)) {
+            return;
+        }
+        Execucao nova = new Execucao(ordemServicoId, inicio, categoria, limite);
+        emExecucao.put(ordemServicoId, nova);
+        if (anterior != null) {
+            pendentes.remove(anterior);
+            removerAlerta(ordemServicoId);
+        }
+        pendentes.add(nova);
+    }
+
+    private synchronized void remover(Long ordemServicoId) {
+        Execucao anterior = emExecucao.remove(ordemServicoId);
+        if (anterior != null) {
+            pendentes.remove(anterior);
+            removerAlerta(ordemServicoId);
+        }
+    }
+
+    private void removerAlerta(Long ordemServicoId) {
+        Execucao alerta = alertas.remove(ordemServicoId);
+        if (alerta != null) {
+            alertasPorCategoria.get(alerta.categoria).decrementAndGet();
+        }
+    }
+
+    private void registrarGauge(String categoria) {
+        AtomicInteger contador = new AtomicInteger();
+        alertasPorCategoria.put(categoria, contador);
+        registry.gauge("oficina.os.execucao.alertas", Tags.of("categoria", categoria), contador);
+    }
+
+    private static final class Execucao {
+
+        static final Comparator<Execucao> ORDEM = Comparator.comparing((Execucao execucao) -> execucao.alertaEm)
+                .thenComparing(execucao -> execucao.ordemServicoId);
+
+        final Long ordemServicoId;
+        final LocalDateTime inicio;
+        final String categoria;
+        final Duration limite;
+        final LocalDateTime alertaEm;
+
+        Execucao(Long ordemServicoId, LocalDateTime inicio, String categoria, Duration limite) {
+            this.ordemServicoId = ordemServicoId;
+            this.inicio = inicio;
+            this.categoria = categoria;
+            this.limite = limite;
+            this.alertaEm = inicio.plus(limite);
+        }
+    }
+
+    /**
+     * Alerta de ordem parada em execução, como exposto pela API
+     */
+    public static final class AlertaExecucao {
+
+        private final Long ordemServicoId;
+        private final LocalDateTime dataInicioExecucao;
+        private final String categoria;
+        private final long limiteHoras;
+        private final long horasEmExecucao;
+
+        AlertaExecucao(Execucao execucao, LocalDateTime agora) {
+            this.ordemServicoId = execucao.ordemServicoId;
+            this.dataInicioExecucao = execucao.inicio;
+            this.categoria = execucao.categoria;
+            this.limiteHoras = execucao.limite.toHours();
+            this.horasEmExecucao = Duration.between(execucao.inicio, agora).toHours();
+        }
+
+        public Long getOrdemServicoId() {
+            return ordemServicoId;
+        }
+
+        public LocalDateTime getDataInicioExecucao() {
+            return dataInicioExecucao;
+        }
+
+        public String getCategoria() {
+            return categoria;
+        }
+
+        public long getLimiteHoras() {
+            return limiteHoras;
+        }
+
+        public long getHorasEmExecucao() {
+            return horasEmExecucao;
+        }
+    }
+}
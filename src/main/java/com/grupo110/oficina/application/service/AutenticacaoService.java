@@ -0,0 +1,70 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.domain.model.Usuario;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Fluxo de login: busca o usuário em uma transação curta e verifica a senha no executor
+ * de senhas, sem manter conexão com o banco durante o bcrypt. Senhas em texto puro
+ * são migradas para bcrypt no primeiro login bem-sucedido.
+ */
+@ApplicationScoped
+public class AutenticacaoService {
+
+    @Inject
+    UsuarioService usuarioService;
+
+    @Inject
+    SenhaService senhaService;
+
+    @Inject
+    UltimoAcessoService ultimoAcessoService;
+
+    /**
+     * Autentica usuário por username e senha. Usuário inexistente, inativo ou senha incorreta
+     * terminam com CredenciaisInvalidasException; executor saturado com RejectedExecutionException;
+     * falhas do banco com a própria exceção. Sem usuário a senha é verificada contra um hash
+     * fictício, para que o tempo de resposta seja o mesmo.
+     */
+    public CompletionStage<Usuario> autenticar(String username, String senha) {
+        Optional<Usuario> encontrado;
+        try {
+            encontrado = usuarioService.buscarParaAutenticacao(username);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (encontrado.isEmpty()) {
+            return senhaService.verificarSemUsuario(senha).<Usuario>thenApply(valida -> {
+                throw new CredenciaisInvalidasException("Falha na autenticação: usuário não encontrado ou inativo");
+            });
+        }
+
+        Usuario usuario = encontrado.get();
+        String senhaGravada = usuario.getSenha();
+        return senhaService.verificar(senha, senhaGravada).thenCompose(valida -> {
+            if (!valida) {
+                throw new CredenciaisInvalidasException("Falha na autenticação: Senha incorreta");
+            }
+            // Último acesso é gravado em lote pelo UltimoAcessoService, fora da transação do login
+            ultimoAcessoService.registrar(usuario.getId(), LocalDateTime.now());
+
+            if (!senhaService.precisaMigrar(senhaGravada)) {
+                return CompletableFuture.completedFuture(usuario);
+            }
+            // A migração não pode impedir o login: se falhar, tenta de novo no próximo acesso
+            return senhaService.gerarHash(senha)
+                    .thenApply(hash -> {
+                        usuarioService.migrarSenha(usuario.getId(), hash);
+                        return usuario;
+                    })
+                    .exceptionally(erro -> usuario);
+        });
+    }
+}
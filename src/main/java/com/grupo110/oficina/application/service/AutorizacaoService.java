@@ -0,0 +1,94 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.PermissoesAlteradasEvento;
+import com.grupo110.oficina.application.event.UsuarioAlteradoEvento;
+import com.grupo110.oficina.infrastructure.repository.UsuarioRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória dos retratos de autorização por usuário.
+ * O retrato é carregado uma vez (usuário + perfil + permissões em uma consulta) e descartado
+ * quando o UsuarioService sinaliza alteração do usuário ou quando um perfil ou permissão é gravado,
+ * após o fim da transação. Alterações feitas por outra instância ou direto no banco passam a valer
+ * quando o retrato expira (oficina.autorizacao.cache.expiracao).
+ */
+@ApplicationScoped
+public class AutorizacaoService {
+
+    @Inject
+    UsuarioRepository usuarioRepository;
+
+    @ConfigProperty(name = "oficina.autorizacao.cache.expiracao", defaultValue = "5m")
+    Duration expiracao;
+
+    private final Map<Long, Entrada> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Incrementado a cada invalidação; um carregamento concorrente com uma invalidação
+     * não é guardado, para não devolver ao cache um retrato anterior à alteração
+     */
+    private final AtomicLong geracao = new AtomicLong();
+
+    /**
+     * Retorna o retrato de autorização do usuário, carregando do banco na primeira vez
+     */
+    public AutorizacaoUsuario obter(Long usuarioId) {
+        Entrada entrada = cache.get(usuarioId);
+        if (entrada != null && System.nanoTime() - entrada.carregadaEm < expiracao.toNanos()) {
+            return entrada.autorizacao;
+        }
+
+        long geracaoInicial = geracao.get();
+        AutorizacaoUsuario autorizacao = usuarioRepository.findComPerfilEPermissoes(usuarioId)
+                .map(AutorizacaoUsuario::de)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + usuarioId));
+        if (geracao.get() == geracaoInicial) {
+            cache.put(usuarioId, new Entrada(autorizacao, System.nanoTime()));
+        }
+        return autorizacao;
+    }
+
+    /**
+     * Descarta o retrato de um usuário
+     */
+    public void invalidar(Long usuarioId) {
+        geracao.incrementAndGet();
+        cache.remove(usuarioId);
+    }
+
+    /**
+     * Descarta todos os retratos (ex.: alteração nas permissões de um perfil)
+     */
+    public void invalidarTodos() {
+        geracao.incrementAndGet();
+        cache.clear();
+    }
+
+    void aoAlterarUsuario(@Observes(during = TransactionPhase.AFTER_COMPLETION) UsuarioAlteradoEvento evento) {
+        invalidar(evento.getUsuarioId());
+    }
+
+    void aoAlterarPermissoes(@Observes(during = TransactionPhase.AFTER_COMPLETION) PermissoesAlteradasEvento evento) {
+        invalidarTodos();
+    }
+
+    private static final class Entrada {
+
+        final AutorizacaoUsuario autorizacao;
+        final long carregadaEm;
+
+        Entrada(AutorizacaoUsuario autorizacao, long carregadaEm) {
+            this.autorizacao = autorizacao;
+            this.carregadaEm = carregadaEm;
+        }
+    }
+}
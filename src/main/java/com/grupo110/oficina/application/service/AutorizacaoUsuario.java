@@ -0,0 +1,92 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.domain.model.Perfil;
+import com.grupo110.oficina.domain.model.Permissao;
+import com.grupo110.oficina.domain.model.Usuario;
+
+/**
+ * Retrato imutável da autorização de um usuário: tipos de perfil e permissões em bitsets,
+ * onde o bit de cada permissão é o seu id. As checagens são testes de bit, sem consulta
+ * ao banco e sem alocação.
+ */
+public final class AutorizacaoUsuario {
+
+    private final Long usuarioId;
+    private final boolean ativo;
+    private final String nomePerfil;
+    private final long tiposPerfil;
+    private final long[] permissoes;
+
+    private AutorizacaoUsuario(Long usuarioId, boolean ativo, String nomePerfil, long tiposPerfil, long[] permissoes) {
+        this.usuarioId = usuarioId;
+        this.ativo = ativo;
+        this.nomePerfil = nomePerfil;
+        this.tiposPerfil = tiposPerfil;
+        this.permissoes = permissoes;
+    }
+
+    /**
+     * Monta o retrato a partir do usuário com perfil e permissões já carregados.
+     * Somente permissões ativas entram no bitset.
+     */
+    public static AutorizacaoUsuario de(Usuario usuario) {
+        Perfil perfil = usuario.getPerfil();
+        if (perfil == null) {
+            return new AutorizacaoUsuario(usuario.getId(), Boolean.TRUE.equals(usuario.getAtivo()), null, 0L, new long[0]);
+        }
+
+        long maiorId = -1;
+        for (Permissao permissao : perfil.getPermissoes()) {
+            if (Boolean.TRUE.equals(permissao.getAtivo())) {
+                maiorId = Math.max(maiorId, permissao.getId());
+            }
+        }
+        long[] permissoes = new long[(int) (maiorId >>> 6) + 1];
+        for (Permissao permissao : perfil.getPermissoes()) {
+            if (Boolean.TRUE.equals(permissao.getAtivo())) {
+                permissoes[(int) (permissao.getId() >>> 6)] |= 1L << permissao.getId();
+            }
+        }
+
+        long tiposPerfil = perfil.getTipo() != null ? 1L << perfil.getTipo().ordinal() : 0L;
+        return new AutorizacaoUsuario(usuario.getId(), Boolean.TRUE.equals(usuario.getAtivo()),
+                perfil.getNome(), tiposPerfil, permissoes);
+    }
+
+    /**
+     * Verifica se o perfil do usuário concede a permissão com o id informado
+     */
+    public boolean temPermissao(long permissaoId) {
+        if (permissaoId < 0) {
+            return false;
+        }
+        int palavra = (int) (permissaoId >>> 6);
+        return palavra < permissoes.length && (permissoes[palavra] & (1L << permissaoId)) != 0;
+    }
+
+    /**
+     * Verifica se o usuário tem o tipo de perfil informado
+     */
+    public boolean temTipoPerfil(Perfil.TipoPerfil tipo) {
+        return (tiposPerfil & (1L << tipo.ordinal())) != 0;
+    }
+
+    /**
+     * Verifica se o perfil do usuário tem o nome informado
+     */
+    public boolean temPerfil(String nome) {
+        return nomePerfil != null && nomePerfil.equals(nome);
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    public String getNomePerfil() {
+        return nomePerfil;
+    }
+}
@@ -2,6 +2,9 @@ package com.grupo110.oficina.application.service;
 
 import com.grupo110.oficina.domain.model.Cliente;
 import com.grupo110.oficina.infrastructure.repository.ClienteRepository;
+import com.grupo110.oficina.infrastructure.repository.FiltroConsulta;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -100,6 +103,17 @@ public class ClienteService {
         return clienteRepository.listAll();
     }
     
+    /**
+     * Lista clientes com filtros opcionais, paginados no banco de dados
+     */
+    public Pagina<Cliente> listarPaginado(String nome, String documento, Boolean ativo, int pagina, int tamanho) {
+        FiltroConsulta filtro = new FiltroConsulta()
+                .contemIgnoreCase("nome", nome)
+                .contem("documento", documento)
+                .igual("ativo", ativo);
+        return clienteRepository.findPaginado(filtro, Sort.by("id"), pagina, tamanho);
+    }
+    
     /**
      * Lista clientes ativos
      */
@@ -0,0 +1,73 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.dto.OrdemServicoDTO;
+import com.grupo110.oficina.infrastructure.repository.OrdemServicoLeituraReativaRepository;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Consultas de acompanhamento de ordens de serviço executadas no event loop.
+ * Não há transação JTA aqui: cada consulta é um único SELECT no pool reativo.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "oficina.os.leitura-reativa.habilitada", stringValue = "true")
+public class ConsultaReativaOrdemServicoService {
+
+    @Inject
+    OrdemServicoLeituraReativaRepository leituraRepository;
+
+    /**
+     * Busca o resumo da ordem de serviço por ID; item nulo quando a ordem não existe.
+     * Falhas da consulta chegam como falha do Uni.
+     */
+    public Uni<OrdemServicoDTO> buscarResumoPorId(Long id) {
+        return leituraRepository.findResumoById(id)
+                .onItem().ifNotNull().transform(ConsultaReativaOrdemServicoService::paraResumo);
+    }
+
+    /**
+     * Resumo das ordens de serviço de um cliente
+     */
+    public Multi<OrdemServicoDTO> listarResumoPorCliente(Long clienteId) {
+        return leituraRepository.streamResumoByClienteId(clienteId)
+                .map(ConsultaReativaOrdemServicoService::paraResumo);
+    }
+
+    /**
+     * Resumo das ordens de serviço de um veículo
+     */
+    public Multi<OrdemServicoDTO> listarResumoPorVeiculo(Long veiculoId) {
+        return leituraRepository.streamResumoByVeiculoId(veiculoId)
+                .map(ConsultaReativaOrdemServicoService::paraResumo);
+    }
+
+    private static OrdemServicoDTO paraResumo(Row linha) {
+        OrdemServicoDTO dto = new OrdemServicoDTO();
+        dto.setId(linha.getLong("id"));
+        dto.setNumeroOS(linha.getString("numero_os"));
+        dto.setStatus(linha.getString("status"));
+        dto.setDescricaoProblema(linha.getString("descricao_problema"));
+        dto.setDiagnostico(linha.getString("diagnostico"));
+        dto.setObservacoes(linha.getString("observacoes"));
+        dto.setValorTotal(linha.getBigDecimal("valor_total"));
+        dto.setValorMaoObra(linha.getBigDecimal("valor_mao_obra"));
+        dto.setValorPecas(linha.getBigDecimal("valor_pecas"));
+        dto.setPrazoEntrega(linha.getLocalDateTime("prazo_entrega"));
+        dto.setDataRecebimento(linha.getLocalDateTime("data_recebimento"));
+        dto.setDataInicioExecucao(linha.getLocalDateTime("data_inicio_execucao"));
+        dto.setDataFinalizacao(linha.getLocalDateTime("data_finalizacao"));
+        dto.setDataEntrega(linha.getLocalDateTime("data_entrega"));
+        dto.setDataCadastro(linha.getLocalDateTime("data_cadastro"));
+        dto.setDataAtualizacao(linha.getLocalDateTime("data_atualizacao"));
+        dto.setClienteId(linha.getLong("cliente_id"));
+        dto.setClienteNome(linha.getString("cliente_nome"));
+        dto.setVeiculoId(linha.getLong("veiculo_id"));
+        dto.setVeiculoPlaca(linha.getString("veiculo_placa"));
+        dto.setVeiculoModelo(linha.getString("veiculo_modelo"));
+        return dto;
+    }
+}
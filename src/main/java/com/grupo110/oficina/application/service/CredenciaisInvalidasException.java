@@ -0,0 +1,12 @@
+package com.grupo110.oficina.application.service;
+
+/**
+ * Usuário inexistente ou inativo, ou senha incorreta. As demais falhas do login
+ * (banco indisponível, executor saturado) não usam esta exceção.
+ */
+public class CredenciaisInvalidasException extends RuntimeException {
+
+    public CredenciaisInvalidasException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.OrdemServicoAlteradaEvento;
+import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.infrastructure.repository.OrdemServicoRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de ordens de serviço por status mantidos em memória para os painéis.
+ * São atualizados pelos eventos de alteração de ordem após o commit e reconciliados
+ * periodicamente com o banco, o que corrige eventuais desvios (ex.: alterações feitas
+ * por outra instância ou direto no banco). As leituras nunca consultam o banco.
+ * As escritas são serializadas (synchronized); os eventos recebidos durante a recontagem são
+ * reaplicados sobre ela. Uma alteração confirmada entre o início da reconciliação e a leitura do
+ * banco pode ser contada duas vezes até a próxima reconciliação (janela de uma ida ao banco).
+ */
+@ApplicationScoped
+public class EstatisticasOrdemServicoService {
+
+    @Inject
+    OrdemServicoRepository ordemServicoRepository;
+
+    private final Map<OrdemServico.StatusOrdemServico, AtomicLong> contadores =
+            new EnumMap<>(OrdemServico.StatusOrdemServico.class);
+
+    private final EventosDuranteReconstrucao<OrdemServicoAlteradaEvento> eventosDuranteReconciliacao =
+            new EventosDuranteReconstrucao<>();
+
+    private volatile LocalDateTime ultimaReconciliacao;
+
+    public EstatisticasOrdemServicoService() {
+        for (OrdemServico.StatusOrdemServico status : OrdemServico.StatusOrdemServico.values()) {
+            contadores.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Aplica a alteração de status somente depois que a transação foi confirmada
+     */
+    void aoAlterarOrdem(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrdemServicoAlteradaEvento evento) {
+        if (!evento.isMudancaDeStatus()) {
+            return;
+        }
+        synchronized (this) {
+            aplicar(evento);
+            eventosDuranteReconciliacao.registrar(evento);
+        }
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        reconciliar();
+    }
+
+    /**
+     * Recarrega os contadores a partir de uma única consulta agrupada por status e reaplica as
+     * alterações recebidas durante a consulta
+     */
+    @Scheduled(every = "${oficina.estatisticas.os.reconciliacao:5m}", delayed = "${oficina.estatisticas.os.reconciliacao:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void reconciliar() {
+        synchronized (this) {
+            eventosDuranteReconciliacao.iniciar();
+        }
+        Map<OrdemServico.StatusOrdemServico, Long> contagem;
+        try {
+            contagem = ordemServicoRepository.countAgrupadoPorStatus();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                eventosDuranteReconciliacao.concluir();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            contadores.forEach((status, contador) -> contador.set(contagem.getOrDefault(status, 0L)));
+            eventosDuranteReconciliacao.concluir().forEach(this::aplicar);
+        }
+        ultimaReconciliacao = LocalDateTime.now();
+    }
+
+    private void aplicar(OrdemServicoAlteradaEvento evento) {
+        if (evento.getStatusAnterior() != null) {
+            contadores.get(evento.getStatusAnterior()).decrementAndGet();
+        }
+        if (evento.getStatusNovo() != null) {
+            contadores.get(evento.getStatusNovo()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Quantidade de ordens no status informado
+     */
+    public long contarPorStatus(OrdemServico.StatusOrdemServico status) {
+        return contadores.get(status).get();
+    }
+
+    /**
+     * Retrato dos contadores para o endpoint de estatísticas
+     */
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Long> porStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<OrdemServico.StatusOrdemServico, AtomicLong> contador : contadores.entrySet()) {
+            long valor = contador.getValue().get();
+            porStatus.put(contador.getKey().name(), valor);
+            total += valor;
+        }
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("total", total);
+        estatisticas.put("porStatus", porStatus);
+        estatisticas.put("ultimaReconciliacao", ultimaReconciliacao);
+        return estatisticas;
+    }
+}
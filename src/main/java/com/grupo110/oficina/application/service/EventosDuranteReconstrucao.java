@@ -0,0 +1,41 @@
+package com.grupo110.oficina.application.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Eventos recebidos enquanto uma estrutura em memória é remontada a partir do banco.
+ * A leitura do banco é um retrato: uma alteração confirmada depois dele, cujo evento já foi
+ * aplicado à estrutura antiga, seria desfeita pela troca. Os eventos recebidos entre iniciar()
+ * e concluir() são guardados para serem reaplicados sobre a estrutura nova.
+ * Não é thread-safe: o chamador usa a mesma trava com que aplica os eventos e troca a estrutura.
+ */
+final class EventosDuranteReconstrucao<E> {
+
+    private List<E> eventos;
+
+    /**
+     * Começa a guardar os eventos; chamar antes da leitura do banco
+     */
+    void iniciar() {
+        eventos = new ArrayList<>();
+    }
+
+    /**
+     * Guarda o evento se houver uma reconstrução em andamento
+     */
+    void registrar(E evento) {
+        if (eventos != null) {
+            eventos.add(evento);
+        }
+    }
+
+    /**
+     * Eventos guardados desde iniciar(), em ordem de chegada; encerra o registro
+     */
+    List<E> concluir() {
+        List<E> guardados = eventos != null ? eventos : List.of();
+        eventos = null;
+        return guardados;
+    }
+}
@@ -0,0 +1,144 @@
+package com.grupo110.oficina.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.grupo110.oficina.application.dto.OrdemServicoDTO;
+import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.infrastructure.repository.OrdemServicoRepository;
+import io.quarkus.narayana.jta.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de ordens de serviço por período com memória constante: as linhas são lidas
+ * do banco em lotes e escritas direto na resposta, sem montar a lista completa.
+ * A escrita é bloqueante, então um cliente lento segura a leitura do banco (backpressure).
+ */
+@ApplicationScoped
+public class ExportacaoOrdemServicoService {
+
+    /**
+     * Linhas lidas do banco por ida ao servidor e intervalo para esvaziar o contexto de persistência
+     */
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final String CABECALHO_CSV = "id;numeroOS;status;clienteId;clienteNome;veiculoId;veiculoPlaca;"
+            + "veiculoModelo;dataRecebimento;prazoEntrega;dataFinalizacao;dataEntrega;"
+            + "valorMaoObra;valorPecas;valorTotal";
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extensao;
+
+        Formato(String mediaType, String extensao) {
+            this.mediaType = mediaType;
+            this.extensao = extensao;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+
+    @Inject
+    OrdemServicoRepository ordemServicoRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Escreve na saída as ordens recebidas no período, uma por linha, no formato informado
+     */
+    @Transactional
+    @TransactionConfiguration(timeout = 3600)
+    public void exportar(LocalDateTime dataInicial, LocalDateTime dataFinal, Formato formato,
+                         OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(OrdemServicoDTO.class);
+
+        if (formato == Formato.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<OrdemServico> ordens = ordemServicoRepository
+                .streamByDataRecebimentoBetween(dataInicial, dataFinal, TAMANHO_LOTE)) {
+            Iterator<OrdemServico> iterator = ordens.iterator();
+            int linhas = 0;
+            while (iterator.hasNext()) {
+                OrdemServicoDTO ordem = OrdemServicoDTO.resumo(iterator.next());
+                if (formato == Formato.CSV) {
+                    escreverCsv(writer, ordem);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(ordem));
+                }
+                writer.write('\n');
+
+                if (++linhas % TAMANHO_LOTE == 0) {
+                    // Envia o lote ao cliente e descarta as entidades já escritas
+                    writer.flush();
+                    ordemServicoRepository.getEntityManager().clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Converte o formato informado na API; o padrão é NDJSON
+     */
+    public Formato converterFormato(String formato) {
+        if (formato == null || formato.trim().isEmpty()) {
+            return Formato.NDJSON;
+        }
+        try {
+            return Formato.valueOf(formato.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Formato de exportação inválido: " + formato);
+        }
+    }
+
+    private void escreverCsv(Writer writer, OrdemServicoDTO ordem) throws IOException {
+        Object[] colunas = {
+                ordem.getId(), ordem.getNumeroOS(), ordem.getStatus(),
+                ordem.getClienteId(), ordem.getClienteNome(),
+                ordem.getVeiculoId(), ordem.getVeiculoPlaca(), ordem.getVeiculoModelo(),
+                ordem.getDataRecebimento(), ordem.getPrazoEntrega(),
+                ordem.getDataFinalizacao(), ordem.getDataEntrega(),
+                ordem.getValorMaoObra(), ordem.getValorPecas(), ordem.getValorTotal()
+        };
+        for (int i = 0; i < colunas.length; i++) {
+            if (i > 0) {
+                writer.write(';');
+            }
+            if (colunas[i] != null) {
+                writer.write(escaparCsv(colunas[i].toString()));
+            }
+        }
+    }
+
+    private static String escaparCsv(String valor) {
+        if (valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,75 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.infrastructure.repository.SequenciaRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Distribui os valores de uma sequência nomeada a partir de faixas reservadas na tabela de sequências.
+ * Dentro de uma faixa cada valor custa um incremento atômico, sem ida ao banco; só a troca de faixa
+ * (a cada tamanhoBloco valores) acessa o banco. Valores de uma faixa não usada até o fim
+ * (ex.: reinício da aplicação) são descartados.
+ */
+final class FaixaSequencia {
+
+    private final SequenciaRepository sequenciaRepository;
+    private final String nome;
+    private final int tamanhoBloco;
+
+    private final AtomicReference<Bloco> blocoAtual = new AtomicReference<>(Bloco.VAZIO);
+
+    // ReentrantLock em vez de synchronized: a renovação faz I/O e não deve prender a
+    // thread portadora quando executada em virtual thread
+    private final ReentrantLock renovacao = new ReentrantLock();
+
+    FaixaSequencia(SequenciaRepository sequenciaRepository, String nome, int tamanhoBloco) {
+        this.sequenciaRepository = sequenciaRepository;
+        this.nome = nome;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Retorna o próximo valor da sequência
+     */
+    long proximo() {
+        while (true) {
+            Bloco bloco = blocoAtual.get();
+            long valor = bloco.proximo.getAndIncrement();
+            if (valor < bloco.fim) {
+                return valor;
+            }
+            renovarBloco(bloco);
+        }
+    }
+
+    /**
+     * Reserva uma nova faixa, a menos que outra thread já tenha trocado o bloco esgotado
+     */
+    private void renovarBloco(Bloco esgotado) {
+        renovacao.lock();
+        try {
+            if (blocoAtual.get() != esgotado) {
+                return;
+            }
+            long inicio = sequenciaRepository.reservarBloco(nome, tamanhoBloco);
+            blocoAtual.set(new Bloco(inicio, inicio + tamanhoBloco));
+        } finally {
+            renovacao.unlock();
+        }
+    }
+
+    private static final class Bloco {
+
+        static final Bloco VAZIO = new Bloco(0, 0);
+
+        final AtomicLong proximo;
+        final long fim;
+
+        Bloco(long inicio, long fim) {
+            this.proximo = new AtomicLong(inicio);
+            this.fim = fim;
+        }
+    }
+}
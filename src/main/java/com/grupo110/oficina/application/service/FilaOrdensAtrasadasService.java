@@ -0,0 +1,201 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.OrdemServicoAlteradaEvento;
+import com.grupo110.oficina.application.event.OrdemServicoAtrasadaEvento;
+import com.grupo110.oficina.infrastructure.repository.OrdemServicoRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Fila em memória das ordens em aberto com prazo de entrega, ordenada pelo prazo.
+ * As atrasadas são o início da fila (prazo anterior a agora), então listar k atrasadas
+ * custa O(k) sem consulta ao banco. É alimentada pelos eventos de alteração de ordem após
+ * o commit, montada a partir do banco na inicialização e reconciliada periodicamente.
+ * Cada prazo vencido gera um OrdemServicoAtrasadaEvento na verificação seguinte, inclusive o de
+ * ordens que já entram na fila atrasadas (criadas ou alteradas com prazo passado, carregadas na
+ * inicialização ou na reconciliação, prazos vencidos com a instância parada). O mesmo prazo não é
+ * notificado de novo enquanto a instância estiver no ar; depois de reiniciar, as ordens ainda
+ * atrasadas são notificadas outra vez, e cada instância notifica por conta própria.
+ * As escritas são serializadas (synchronized); as leituras não bloqueiam.
+ */
+@ApplicationScoped
+public class FilaOrdensAtrasadasService {
+
+    @Inject
+    OrdemServicoRepository ordemServicoRepository;
+
+    @Inject
+    Event<OrdemServicoAtrasadaEvento> ordemAtrasada;
+
+    private volatile Fila fila = new Fila();
+
+    private final EventosDuranteReconstrucao<OrdemServicoAlteradaEvento> eventosDuranteReconciliacao =
+            new EventosDuranteReconstrucao<>();
+
+    /**
+     * Prazo já notificado de cada ordem, para não repetir o evento quando a ordem muda sem mudar o prazo
+     */
+    private final Map<Long, LocalDateTime> notificadas = new HashMap<>();
+
+    /**
+     * Atualiza a posição da ordem na fila somente depois que a transação foi confirmada
+     */
+    void aoAlterarOrdem(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrdemServicoAlteradaEvento evento) {
+        synchronized (this) {
+            aplicar(fila, evento);
+            eventosDuranteReconciliacao.registrar(evento);
+        }
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        reconciliar();
+    }
+
+    /**
+     * Remonta a fila a partir do banco, corrigindo alterações feitas por outra instância ou direto no banco.
+     * As alterações recebidas durante a leitura são reaplicadas sobre a fila nova antes da troca.
+     */
+    @Scheduled(every = "${oficina.os.atrasadas.reconciliacao:5m}", delayed = "${oficina.os.atrasadas.reconciliacao:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void reconciliar() {
+        synchronized (this) {
+            eventosDuranteReconciliacao.iniciar();
+        }
+        Fila nova = new Fila();
+        try {
+            ordemServicoRepository.findPrazosEmAberto().forEach(nova::atualizar);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                eventosDuranteReconciliacao.concluir();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            eventosDuranteReconciliacao.concluir().forEach(evento -> aplicar(nova, evento));
+            fila = nova;
+            notificadas.keySet().retainAll(nova.porOrdem.keySet());
+        }
+    }
+
+    private void aplicar(Fila destino, OrdemServicoAlteradaEvento evento) {
+        boolean emAberto = evento.getStatusNovo() != null && !evento.getStatusNovo().isEncerrado();
+        LocalDateTime prazoEntrega = emAberto ? evento.getPrazoEntrega() : null;
+        destino.atualizar(evento.getOrdemServicoId(), prazoEntrega);
+        if (prazoEntrega == null) {
+            notificadas.remove(evento.getOrdemServicoId());
+        }
+    }
+
+    /**
+     * Notifica as ordens com prazo até agora que ainda não foram notificadas por esse prazo
+     */
+    @Scheduled(every = "${oficina.os.atrasadas.verificacao:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void notificarVencidas() {
+        List<Prazo> vencidas = new ArrayList<>();
+        synchronized (this) {
+            for (Prazo prazo : fila.retirarANotificarAte(LocalDateTime.now())) {
+                if (!prazo.prazoEntrega.equals(notificadas.put(prazo.ordemServicoId, prazo.prazoEntrega))) {
+                    vencidas.add(prazo);
+                }
+            }
+        }
+        // Fora da trava: os observadores podem demorar
+        for (Prazo prazo : vencidas) {
+            ordemAtrasada.fire(new OrdemServicoAtrasadaEvento(prazo.ordemServicoId, prazo.prazoEntrega));
+        }
+    }
+
+    /**
+     * IDs das ordens atrasadas, da mais atrasada para a menos atrasada
+     */
+    public List<Long> listarIdsAtrasadas() {
+        List<Long> ids = new ArrayList<>();
+        for (Prazo prazo : fila.vencidasAntes(LocalDateTime.now())) {
+            ids.add(prazo.ordemServicoId);
+        }
+        return ids;
+    }
+
+    private static final class Fila {
+
+        private final ConcurrentSkipListSet<Prazo> porPrazo = new ConcurrentSkipListSet<>(Prazo.ORDEM);
+        private final Map<Long, Prazo> porOrdem = new ConcurrentHashMap<>();
+
+        /**
+         * Prazos que entraram ou mudaram na fila e ainda não passaram por uma verificação depois de vencer
+         */
+        private final ConcurrentSkipListSet<Prazo> aNotificar = new ConcurrentSkipListSet<>(Prazo.ORDEM);
+
+        /**
+         * Reposiciona a ordem; prazo nulo retira a ordem da fila
+         */
+        void atualizar(Long ordemServicoId, LocalDateTime prazoEntrega) {
+            porOrdem.compute(ordemServicoId, (id, anterior) -> {
+                if (anterior != null) {
+                    porPrazo.remove(anterior);
+                    aNotificar.remove(anterior);
+                }
+                if (prazoEntrega == null) {
+                    return null;
+                }
+                Prazo novo = new Prazo(id, prazoEntrega);
+                porPrazo.add(novo);
+                aNotificar.add(novo);
+                return novo;
+            });
+        }
+
+        /**
+         * Prazos anteriores a fim
+         */
+        Iterable<Prazo> vencidasAntes(LocalDateTime fim) {
+            return porPrazo.headSet(new Prazo(Long.MIN_VALUE, fim));
+        }
+
+        /**
+         * Retira e devolve os prazos a notificar até fim (inclusive)
+         */
+        List<Prazo> retirarANotificarAte(LocalDateTime fim) {
+            List<Prazo> vencidos = new ArrayList<>();
+            Prazo proximo;
+            while ((proximo = aNotificar.pollFirst()) != null) {
+                if (proximo.prazoEntrega.isAfter(fim)) {
+                    aNotificar.add(proximo);
+                    break;
+                }
+                vencidos.add(proximo);
+            }
+            return vencidos;
+        }
+    }
+
+    private static final class Prazo {
+
+        static final Comparator<Prazo> ORDEM = Comparator.<Prazo, LocalDateTime>comparing(p -> p.prazoEntrega)
+                .thenComparing(p -> p.ordemServicoId);
+
+        final Long ordemServicoId;
+        final LocalDateTime prazoEntrega;
+
+        Prazo(Long ordemServicoId, LocalDateTime prazoEntrega) {
+            this.ordemServicoId = ordemServicoId;
+            this.prazoEntrega = prazoEntrega;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.domain.model.Sequencia;
+import com.grupo110.oficina.infrastructure.repository.SequenciaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Gera números de OS a partir de faixas reservadas na tabela de sequências.
+ * Cada número custa um incremento atômico, sem ida ao banco nem verificação de existência;
+ * só a troca de faixa (a cada tamanhoBloco números) acessa o banco.
+ */
+@ApplicationScoped
+public class GeradorNumeroOS {
+
+    private static final String FORMATO = "OS%010d";
+
+    @Inject
+    SequenciaRepository sequenciaRepository;
+
+    @ConfigProperty(name = "oficina.os.numero.tamanho-bloco", defaultValue = "100")
+    int tamanhoBloco;
+
+    private FaixaSequencia faixa;
+
+    @PostConstruct
+    void iniciar() {
+        faixa = new FaixaSequencia(sequenciaRepository, Sequencia.NUMERO_OS, tamanhoBloco);
+    }
+
+    /**
+     * Retorna o próximo número de OS
+     */
+    public String proximoNumero() {
+        return String.format(FORMATO, faixa.proximo());
+    }
+}
@@ -0,0 +1,707 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.infrastructure.repository.PecaRepository;
+import io.quarkus.narayana.jta.TransactionConfiguration;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido em memória para a busca de peças no balcão, no lugar do LIKE '%x%' que varre a
+ * tabela. Indexa código, nome, descrição, fabricante, marca e modelo do veículo, sem acentos e em
+ * minúsculas. Cada termo da consulta casa por igualdade, por prefixo (autocompletar) ou, a partir de
+ * 4 letras, com até 1 erro de digitação (2 a partir de 8 letras), usando um índice de trigramas sobre
+ * o dicionário de termos; a peça precisa casar todos os termos da consulta. Só os melhores resultados
+ * são mantidos durante a busca, e uma lista deixa de ser percorrida quando nenhuma peça restante nela
+ * entraria no resultado, então prefixos curtos não pontuam o catálogo inteiro.
+ * As listas de IDs de cada termo são arrays ordenados substituídos a cada alteração (leituras sem
+ * bloqueio). O índice é atualizado pelos eventos de alteração de peça após o commit, montado na
+ * inicialização e remontado periodicamente (alterações feitas por outra instância); as alterações
+ * recebidas durante a remontagem são reaplicadas sobre o índice novo.
+ */
+@ApplicationScoped
+public class IndiceBuscaPecaService {
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    /**
+     * Limites de termos do dicionário examinados por termo da consulta (prefixo, trigramas, distância e sugestões)
+     */
+    private static final int MAX_EXPANSAO_PREFIXO = 64;
+    private static final int MAX_TERMOS_TRIGRAMAS = 4096;
+    private static final int MAX_CANDIDATOS_APROXIMADOS = 256;
+    private static final int MAX_TERMOS_SUGESTAO = 256;
+
+    private static final int PESO_EXATO = 3;
+    private static final int PESO_PREFIXO = 2;
+    private static final int PESO_APROXIMADO = 1;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    @Inject
+    PecaRepository pecaRepository;
+
+    private volatile Indice indice = new Indice.Construtor().construir();
+
+    private final EventosDuranteReconstrucao<PecaAlteradaEvento> eventosDuranteReconstrucao =
+            new EventosDuranteReconstrucao<>();
+
+    /**
+     * Reindexa a peça somente depois que a transação foi confirmada
+     */
+    void aoAlterarPeca(@Observes(during = TransactionPhase.AFTER_SUCCESS) PecaAlteradaEvento evento) {
+        synchronized (this) {
+            indexar(indice, evento);
+            eventosDuranteReconstrucao.registrar(evento);
+        }
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        reconstruir();
+    }
+
+    /**
+     * Remonta o índice a partir do banco, lendo as peças em lotes. As alterações recebidas durante
+     * a leitura são reaplicadas sobre o índice novo antes da troca. A leitura do catálogo inteiro
+     * passa do timeout padrão de transação (60 s) com muitas peças.
+     */
+    @Scheduled(every = "${oficina.pecas.busca.reconstrucao:30m}", delayed = "${oficina.pecas.busca.reconstrucao:30m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    @TransactionConfiguration(timeout = 1800)
+    void reconstruir() {
+        synchronized (this) {
+            eventosDuranteReconstrucao.iniciar();
+        }
+        Indice novo;
+        try (Stream<Peca> pecas = pecaRepository.streamCatalogo(TAMANHO_LOTE)) {
+            novo = montar(pecas.iterator(), () -> pecaRepository.getEntityManager().clear());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                eventosDuranteReconstrucao.concluir();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            eventosDuranteReconstrucao.concluir().forEach(evento -> indexar(novo, evento));
+            indice = novo;
+        }
+    }
+
+    /**
+     * Substitui o índice pelas peças informadas, em ordem crescente de ID, sem passar pelo banco (benchmark)
+     */
+    void carregar(Iterator<Peca> pecas) {
+        indice = montar(pecas, () -> { });
+    }
+
+    /**
+     * Monta um índice com as peças do iterador, em ordem crescente de ID; aCadaLote roda a cada TAMANHO_LOTE peças
+     */
+    private static Indice montar(Iterator<Peca> pecas, Runnable aCadaLote) {
+        Indice.Construtor construtor = new Indice.Construtor();
+        int lidas = 0;
+        while (pecas.hasNext()) {
+            Peca peca = pecas.next();
+            construtor.adicionar(peca.getId(), termos(peca.getCodigo(), peca.getNome(), peca.getDescricao(),
+                    peca.getFabricante(), peca.getMarcaVeiculo(), peca.getModeloVeiculo()));
+            if (++lidas % TAMANHO_LOTE == 0) {
+                aCadaLote.run();
+            }
+        }
+        return construtor.construir();
+    }
+
+    private static void indexar(Indice destino, PecaAlteradaEvento evento) {
+        destino.indexar(evento.getPecaId(), termos(evento.getCodigo(), evento.getNome(), evento.getDescricao(),
+                evento.getFabricante(), evento.getMarcaVeiculo(), evento.getModeloVeiculo()));
+    }
+
+    /**
+     * IDs das peças que casam todos os termos do texto, da mais relevante para a menos relevante
+     */
+    public List<Long> buscar(String texto, int limite) {
+        List<String> consulta = tokens(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Indice atual = indice;
+        List<Correspondencias> porTermo = new ArrayList<>(consulta.size());
+        for (String termo : consulta) {
+            Correspondencias correspondencias = atual.correspondencias(termo);
+            if (correspondencias.tamanho == 0) {
+                return List.of();
+            }
+            porTermo.add(correspondencias);
+        }
+        // Começa pelo termo mais seletivo; os demais só testam os candidatos dele
+        porTermo.sort(Comparator.comparingLong(correspondencias -> correspondencias.tamanho));
+        Correspondencias primeiro = porTermo.get(0);
+        List<Correspondencias> demais = porTermo.subList(1, porTermo.size());
+        int maximoDemais = demais.stream().mapToInt(Correspondencias::pesoMaximo).sum();
+
+        Melhores melhores = new Melhores((int) Math.min(limite, primeiro.tamanho));
+        for (int lista = 0; lista < primeiro.listas.size(); lista++) {
+            int peso = primeiro.pesos.get(lista);
+            int maximo = peso + maximoDemais;
+            demais.forEach(Correspondencias::reiniciar);
+            for (long id : primeiro.listas.get(lista)) {
+                if (!melhores.aceita(id, maximo)) {
+                    // Os IDs seguintes da lista são maiores e não passam da mesma pontuação máxima
+                    break;
+                }
+                if (primeiro.contemAntes(lista, id)) {
+                    // Já pontuada por uma lista de peso maior ou igual
+                    continue;
+                }
+                int pontos = peso;
+                for (Correspondencias correspondencias : demais) {
+                    int pesoTermo = correspondencias.pontuarEmOrdem(id);
+                    if (pesoTermo == 0) {
+                        pontos = 0;
+                        break;
+                    }
+                    pontos += pesoTermo;
+                }
+                if (pontos > 0) {
+                    melhores.adicionar(id, pontos);
+                }
+            }
+        }
+        return melhores.ids();
+    }
+
+    /**
+     * Termos do índice que completam a última palavra do texto, dos mais frequentes para os menos
+     */
+    public List<String> sugerir(String texto, int limite) {
+        List<String> consulta = tokens(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        return indice.completar(consulta.get(consulta.size() - 1), limite);
+    }
+
+    /**
+     * Termos distintos e ordenados dos campos da peça; o código também entra sem separadores (ex.: FLT-001 -> flt001)
+     */
+    static String[] termos(String codigo, String... campos) {
+        TreeSet<String> termos = new TreeSet<>(tokens(codigo));
+        if (codigo != null) {
+            String compacto = SEPARADORES.matcher(normalizar(codigo)).replaceAll("");
+            if (!compacto.isEmpty()) {
+                termos.add(compacto);
+            }
+        }
+        for (String campo : campos) {
+            termos.addAll(tokens(campo));
+        }
+        return termos.toArray(new String[0]);
+    }
+
+    /**
+     * Palavras do texto, sem acentos e em minúsculas, na ordem em que aparecem
+     */
+    static List<String> tokens(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static String normalizar(String texto) {
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Listas de IDs que casam um termo da consulta, com o peso de cada forma de casamento
+     */
+    private static final class Correspondencias {
+
+        private final List<long[]> listas = new ArrayList<>();
+        private final List<Integer> pesos = new ArrayList<>();
+        private long tamanho;
+
+        /**
+         * Posição de cada lista a partir da qual pontuarEmOrdem procura (os IDs consultados só crescem)
+         */
+        private int[] cursores = new int[0];
+
+        void adicionar(long[] ids, int peso) {
+            listas.add(ids);
+            pesos.add(peso);
+            tamanho += ids.length;
+        }
+
+        void reiniciar() {
+            if (cursores.length != listas.size()) {
+                cursores = new int[listas.size()];
+            } else {
+                Arrays.fill(cursores, 0);
+            }
+        }
+
+        /**
+         * Maior peso entre as listas que contêm o ID (0 se nenhuma). Os IDs são consultados em ordem crescente
+         * desde o último reiniciar, então cada lista avança a partir da posição anterior em saltos dobrados
+         */
+        int pontuarEmOrdem(long id) {
+            int melhor = 0;
+            for (int i = 0; i < listas.size(); i++) {
+                long[] ids = listas.get(i);
+                int posicao = avancar(ids, cursores[i], id);
+                cursores[i] = posicao;
+                if (melhor == 0 && posicao < ids.length && ids[posicao] == id) {
+                    melhor = pesos.get(i);
+                }
+            }
+            return melhor;
+        }
+
+        /**
+         * Primeira posição a partir de inicio com ID maior ou igual ao procurado
+         */
+        private static int avancar(long[] ids, int inicio, long id) {
+            int salto = 1;
+            int limite = inicio;
+            while (limite < ids.length && ids[limite] < id) {
+                inicio = limite + 1;
+                limite += salto;
+                salto <<= 1;
+            }
+            int posicao = Arrays.binarySearch(ids, inicio, Math.min(limite, ids.length), id);
+            return posicao >= 0 ? posicao : -posicao - 1;
+        }
+
+        int pesoMaximo() {
+            return pesos.isEmpty() ? 0 : pesos.get(0);
+        }
+
+        boolean contemAntes(int lista, long id) {
+            for (int i = 0; i < lista; i++) {
+                if (Arrays.binarySearch(listas.get(i), id) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Os melhores resultados vistos até agora (maior pontuação, menor ID no empate), do melhor para o pior,
+     * em arrays do tamanho do limite
+     */
+    private static final class Melhores {
+
+        private final long[] ids;
+        private final int[] pontos;
+        private int tamanho;
+
+        Melhores(int capacidade) {
+            ids = new long[capacidade];
+            pontos = new int[capacidade];
+        }
+
+        /**
+         * Uma peça com esse ID e essa pontuação ainda entraria no resultado?
+         */
+        boolean aceita(long id, int pontuacao) {
+            if (tamanho < ids.length) {
+                return true;
+            }
+            if (tamanho == 0) {
+                return false;
+            }
+            int pior = tamanho - 1;
+            return pontuacao > pontos[pior] || (pontuacao == pontos[pior] && id < ids[pior]);
+        }
+
+        void adicionar(long id, int pontuacao) {
+            if (!aceita(id, pontuacao)) {
+                return;
+            }
+            // Com o resultado cheio o pior sai; desloca os piores que a peça para abrir a posição dela
+            int posicao = tamanho < ids.length ? tamanho++ : tamanho - 1;
+            while (posicao > 0 && (pontuacao > pontos[posicao - 1]
+                    || (pontuacao == pontos[posicao - 1] && id < ids[posicao - 1]))) {
+                ids[posicao] = ids[posicao - 1];
+                pontos[posicao] = pontos[posicao - 1];
+                posicao--;
+            }
+            ids[posicao] = id;
+            pontos[posicao] = pontuacao;
+        }
+
+        List<Long> ids() {
+            List<Long> resultado = new ArrayList<>(tamanho);
+            for (int i = 0; i < tamanho; i++) {
+                resultado.add(ids[i]);
+            }
+            return resultado;
+        }
+    }
+
+    private static final class Indice {
+
+        private static final long[] VAZIO = new long[0];
+
+        private static final Comparator<String> ORDEM_TRIGRAMAS =
+                Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+        /**
+         * Termo -> IDs das peças, ordenados
+         */
+        private final ConcurrentSkipListMap<String, long[]> postagens;
+
+        /**
+         * Trigrama -> termos do dicionário que o contêm, ordenados por tamanho (busca aproximada)
+         */
+        private final Map<String, String[]> trigramas;
+
+        /**
+         * Peça -> termos indexados, para remover os termos antigos numa alteração
+         */
+        private final Map<Long, String[]> termosPorPeca;
+
+        private Indice(ConcurrentSkipListMap<String, long[]> postagens, Map<String, String[]> trigramas,
+                       Map<Long, String[]> termosPorPeca) {
+            this.postagens = postagens;
+            this.trigramas = trigramas;
+            this.termosPorPeca = termosPorPeca;
+        }
+
+        synchronized void indexar(Long pecaId, String[] termos) {
+            String[] anteriores = termosPorPeca.getOrDefault(pecaId, new String[0]);
+            if (Arrays.equals(anteriores, termos)) {
+                return;
+            }
+            for (String termo : anteriores) {
+                if (Arrays.binarySearch(termos, termo) < 0) {
+                    remover(termo, pecaId);
+                }
+            }
+            for (String termo : termos) {
+                if (Arrays.binarySearch(anteriores, termo) < 0) {
+                    adicionar(termo, pecaId);
+                }
+            }
+            termosPorPeca.put(pecaId, termos);
+        }
+
+        Correspondencias correspondencias(String termo) {
+            Correspondencias correspondencias = new Correspondencias();
+            long[] exatos = postagens.get(termo);
+            if (exatos != null) {
+                correspondencias.adicionar(exatos, PESO_EXATO);
+            }
+
+            int expandidos = 0;
+            for (Map.Entry<String, long[]> entrada : postagens.tailMap(termo, false).entrySet()) {
+                if (!entrada.getKey().startsWith(termo) || ++expandidos > MAX_EXPANSAO_PREFIXO) {
+                    break;
+                }
+                correspondencias.adicionar(entrada.getValue(), PESO_PREFIXO);
+            }
+
+            if (termo.length() >= 4) {
+                for (String aproximado : aproximados(termo)) {
+                    long[] ids = postagens.get(aproximado);
+                    if (ids != null) {
+                        correspondencias.adicionar(ids, PESO_APROXIMADO);
+                    }
+                }
+            }
+            return correspondencias;
+        }
+
+        List<String> completar(String prefixo, int limite) {
+            List<Map.Entry<String, long[]>> candidatos = new ArrayList<>();
+            for (Map.Entry<String, long[]> entrada : postagens.tailMap(prefixo, true).entrySet()) {
+                if (!entrada.getKey().startsWith(prefixo) || candidatos.size() >= MAX_TERMOS_SUGESTAO) {
+                    break;
+                }
+                candidatos.add(entrada);
+            }
+            return candidatos.stream()
+                    .sorted(Comparator.comparingInt((Map.Entry<String, long[]> entrada) -> entrada.getValue().length).reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limite)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Termos do dicionário a uma distância de edição pequena do termo (que não sejam ele nem extensões dele).
+         * As listas dos trigramas são percorridas das mais raras para as mais comuns, só na faixa de tamanhos
+         * compatíveis e até MAX_TERMOS_TRIGRAMAS termos, para não varrer o dicionário com trigramas frequentes.
+         */
+        private List<String> aproximados(String termo) {
+            int distanciaMaxima = termo.length() >= 8 ? 2 : 1;
+            // O termo tem tantos trigramas (com as bordas) quanto letras; cada edição altera no máximo 4
+            int minimoComum = Math.max(1, termo.length() - 4 * distanciaMaxima);
+
+            long[] codigosTermo = codigosTrigramas(termo);
+            List<String[]> listas = new ArrayList<>(codigosTermo.length);
+            for (String trigrama : trigramasDe(termo)) {
+                String[] lista = trigramas.get(trigrama);
+                if (lista != null) {
+                    listas.add(lista);
+                }
+            }
+            listas.sort(Comparator.comparingInt(lista -> lista.length));
+
+            Map<String, Integer> comuns = new HashMap<>();
+            int examinados = 0;
+            for (String[] lista : listas) {
+                int fim = primeiroComTamanho(lista, termo.length() + distanciaMaxima + 1);
+                for (int i = primeiroComTamanho(lista, termo.length() - distanciaMaxima);
+                     i < fim && examinados < MAX_TERMOS_TRIGRAMAS; i++, examinados++) {
+                    // Trigramas em comum contados no próprio candidato, mesmo que as listas não tenham sido todas lidas
+                    comuns.computeIfAbsent(lista[i], candidato -> emComum(codigosTrigramas(candidato), codigosTermo));
+                }
+            }
+            List<String> aproximados = new ArrayList<>();
+            comuns.entrySet().stream()
+                    .filter(entrada -> entrada.getValue() >= minimoComum && !entrada.getKey().startsWith(termo))
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(MAX_CANDIDATOS_APROXIMADOS)
+                    .forEach(entrada -> {
+                        if (distancia(termo, entrada.getKey()) <= distanciaMaxima) {
+                            aproximados.add(entrada.getKey());
+                        }
+                    });
+            return aproximados;
+        }
+
+        /**
+         * Quantidade de códigos em comum entre dois arrays ordenados e sem repetição
+         */
+        private static int emComum(long[] a, long[] b) {
+            int comuns = 0;
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] == b[j]) {
+                    comuns++;
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return comuns;
+        }
+
+        /**
+         * Os mesmos trigramas de trigramasDe, cada um como as três letras num long, ordenados e sem repetição
+         */
+        private static long[] codigosTrigramas(String termo) {
+            long[] codigos = new long[termo.length()];
+            for (int i = 0; i < codigos.length; i++) {
+                codigos[i] = ((long) letraMarcada(termo, i) << 32) | ((long) letraMarcada(termo, i + 1) << 16)
+                        | letraMarcada(termo, i + 2);
+            }
+            Arrays.sort(codigos);
+            int distintos = 0;
+            for (int i = 0; i < codigos.length; i++) {
+                if (i == 0 || codigos[i] != codigos[i - 1]) {
+                    codigos[distintos++] = codigos[i];
+                }
+            }
+            return Arrays.copyOf(codigos, distintos);
+        }
+
+        /**
+         * Letra da posição em "$" + termo + "$"
+         */
+        private static char letraMarcada(String termo, int posicao) {
+            return posicao == 0 || posicao > termo.length() ? '$' : termo.charAt(posicao - 1);
+        }
+
+        /**
+         * Posição do primeiro termo da lista (ordenada por tamanho) com pelo menos esse tamanho
+         */
+        private static int primeiroComTamanho(String[] lista, int tamanho) {
+            int inicio = 0;
+            int fim = lista.length;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (lista[meio].length() < tamanho) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            return inicio;
+        }
+
+        private void adicionar(String termo, long pecaId) {
+            long[] ids = postagens.get(termo);
+            if (ids == null) {
+                postagens.put(termo, new long[]{pecaId});
+                for (String trigrama : trigramasDe(termo)) {
+                    trigramas.merge(trigrama, new String[]{termo}, (atuais, novo) -> {
+                        int posicao = -Arrays.binarySearch(atuais, termo, ORDEM_TRIGRAMAS) - 1;
+                        String[] termos = new String[atuais.length + 1];
+                        System.arraycopy(atuais, 0, termos, 0, posicao);
+                        termos[posicao] = termo;
+                        System.arraycopy(atuais, posicao, termos, posicao + 1, atuais.length - posicao);
+                        return termos;
+                    });
+                }
+                return;
+            }
+            int posicao = Arrays.binarySearch(ids, pecaId);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            long[] novos = new long[ids.length + 1];
+            System.arraycopy(ids, 0, novos, 0, posicao);
+            novos[posicao] = pecaId;
+            System.arraycopy(ids, posicao, novos, posicao + 1, ids.length - posicao);
+            postagens.put(termo, novos);
+        }
+
+        private void remover(String termo, long pecaId) {
+            long[] ids = postagens.getOrDefault(termo, VAZIO);
+            int posicao = Arrays.binarySearch(ids, pecaId);
+            if (posicao < 0) {
+                return;
+            }
+            if (ids.length > 1) {
+                long[] novos = new long[ids.length - 1];
+                System.arraycopy(ids, 0, novos, 0, posicao);
+                System.arraycopy(ids, posicao + 1, novos, posicao, ids.length - posicao - 1);
+                postagens.put(termo, novos);
+                return;
+            }
+            // Último ID do termo: sai do dicionário
+            postagens.remove(termo);
+            for (String trigrama : trigramasDe(termo)) {
+                trigramas.computeIfPresent(trigrama, (chave, atuais) -> {
+                    String[] termos = Arrays.stream(atuais).filter(atual -> !atual.equals(termo)).toArray(String[]::new);
+                    return termos.length == 0 ? null : termos;
+                });
+            }
+        }
+
+        /**
+         * Trigramas do termo com marcas de início e fim, para que uma troca no meio de palavras curtas
+         * ainda deixe trigramas em comum (ex.: fitlro e filtro têm $fi e ro$)
+         */
+        private static Set<String> trigramasDe(String termo) {
+            String marcado = "$" + termo + "$";
+            Set<String> trigramas = new LinkedHashSet<>();
+            for (int i = 0; i + 3 <= marcado.length(); i++) {
+                trigramas.add(marcado.substring(i, i + 3));
+            }
+            return trigramas;
+        }
+
+        /**
+         * Distância de edição com transposição de letras vizinhas
+         */
+        private static int distancia(String a, String b) {
+            int[][] d = new int[a.length() + 1][b.length() + 1];
+            for (int i = 0; i <= a.length(); i++) {
+                d[i][0] = i;
+            }
+            for (int j = 0; j <= b.length(); j++) {
+                d[0][j] = j;
+            }
+            for (int i = 1; i <= a.length(); i++) {
+                for (int j = 1; j <= b.length(); j++) {
+                    int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + custo);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                    }
+                }
+            }
+            return d[a.length()][b.length()];
+        }
+
+        /**
+         * Monta o índice de uma vez na reconstrução (IDs chegam em ordem crescente, então as listas
+         * são só acrescentadas) e depois gera o índice de trigramas a partir do dicionário
+         */
+        static final class Construtor {
+
+            private final Map<String, ListaIds> postagens = new HashMap<>();
+            private final Map<Long, String[]> termosPorPeca = new HashMap<>();
+
+            void adicionar(Long pecaId, String[] termos) {
+                for (String termo : termos) {
+                    postagens.computeIfAbsent(termo, chave -> new ListaIds()).adicionar(pecaId);
+                }
+                termosPorPeca.put(pecaId, termos);
+            }
+
+            Indice construir() {
+                ConcurrentSkipListMap<String, long[]> finais = new ConcurrentSkipListMap<>();
+                Map<String, List<String>> porTrigrama = new HashMap<>();
+                postagens.forEach((termo, ids) -> {
+                    finais.put(termo, ids.paraArray());
+                    for (String trigrama : trigramasDe(termo)) {
+                        porTrigrama.computeIfAbsent(trigrama, chave -> new ArrayList<>()).add(termo);
+                    }
+                });
+                Map<String, String[]> trigramas = new ConcurrentHashMap<>();
+                porTrigrama.forEach((trigrama, termos) -> {
+                    termos.sort(ORDEM_TRIGRAMAS);
+                    trigramas.put(trigrama, termos.toArray(new String[0]));
+                });
+                return new Indice(finais, trigramas, new ConcurrentHashMap<>(termosPorPeca));
+            }
+        }
+
+        private static final class ListaIds {
+
+            private long[] ids = new long[4];
+            private int tamanho;
+
+            void adicionar(long id) {
+                if (tamanho == ids.length) {
+                    ids = Arrays.copyOf(ids, tamanho * 2);
+                }
+                ids[tamanho++] = id;
+            }
+
+            long[] paraArray() {
+                return Arrays.copyOf(ids, tamanho);
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.infrastructure.repository.PecaRepository;
+import io.quarkus.narayana.jta.TransactionConfiguration;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória da compatibilidade das peças com veículos, no lugar das consultas por marca,
+ * modelo e ano que varrem a tabela (o filtro anoInicio <= ano <= anoFim não aproveita índice B-tree).
+ * Para cada marca/modelo há uma árvore de intervalos sobre [anoInicio, anoFim]. Na consulta por
+ * veículo, marca ou modelo não informados na peça valem para qualquer veículo, e ano inicial ou
+ * final não informado deixa o intervalo aberto daquele lado.
+ * As árvores são imutáveis e substituídas a cada alteração (leituras sem bloqueio). O índice é
+ * atualizado pelos eventos de alteração de peça após o commit, montado na inicialização e remontado
+ * periodicamente (alterações feitas por outra instância); as alterações recebidas durante a remontagem
+ * são reaplicadas sobre o índice novo.
+ */
+@ApplicationScoped
+public class IndiceCompatibilidadePecaService {
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String QUALQUER = "";
+
+    @Inject
+    PecaRepository pecaRepository;
+
+    private volatile Indice indice = new Indice(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    private final EventosDuranteReconstrucao<PecaAlteradaEvento> eventosDuranteReconstrucao =
+            new EventosDuranteReconstrucao<>();
+
+    /**
+     * Reindexa a peça somente depois que a transação foi confirmada
+     */
+    void aoAlterarPeca(@Observes(during = TransactionPhase.AFTER_SUCCESS) PecaAlteradaEvento evento) {
+        synchronized (this) {
+            indexar(indice, evento);
+            eventosDuranteReconstrucao.registrar(evento);
+        }
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        reconstruir();
+    }
+
+    /**
+     * Remonta o índice a partir do banco, lendo as peças em lotes. As alterações recebidas durante
+     * a leitura são reaplicadas sobre o índice novo antes da troca. A leitura do catálogo inteiro
+     * passa do timeout padrão de transação (60 s) com muitas peças.
+     */
+    @Scheduled(every = "${oficina.pecas.compatibilidade.reconstrucao:30m}",
+            delayed = "${oficina.pecas.compatibilidade.reconstrucao:30m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    @TransactionConfiguration(timeout = 1800)
+    void reconstruir() {
+        synchronized (this) {
+            eventosDuranteReconstrucao.iniciar();
+        }
+        Indice novo;
+        try (Stream<Peca> pecas = pecaRepository.streamCatalogo(TAMANHO_LOTE)) {
+            novo = montar(pecas.iterator(), () -> pecaRepository.getEntityManager().clear());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                eventosDuranteReconstrucao.concluir();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            eventosDuranteReconstrucao.concluir().forEach(evento -> indexar(novo, evento));
+            indice = novo;
+        }
+    }
+
+    /**
+     * Substitui o índice pelas peças informadas, sem passar pelo banco (testes)
+     */
+    void carregar(Iterator<Peca> pecas) {
+        indice = montar(pecas, () -> { });
+    }
+
+    /**
+     * Monta um índice com as peças do iterador; aCadaLote roda a cada TAMANHO_LOTE peças
+     */
+    private static Indice montar(Iterator<Peca> pecas, Runnable aCadaLote) {
+        Map<Chave, List<Intervalo>> porChave = new HashMap<>();
+        int lidas = 0;
+        while (pecas.hasNext()) {
+            Peca peca = pecas.next();
+            Intervalo intervalo = new Intervalo(peca.getId(), peca.getMarcaVeiculo(), peca.getModeloVeiculo(),
+                    peca.getAnoInicio(), peca.getAnoFim());
+            porChave.computeIfAbsent(intervalo.chave, chave -> new ArrayList<>()).add(intervalo);
+            if (++lidas % TAMANHO_LOTE == 0) {
+                aCadaLote.run();
+            }
+        }
+
+        Map<Chave, ArvoreIntervalos> arvores = new ConcurrentHashMap<>();
+        Map<Long, Intervalo> porPeca = new ConcurrentHashMap<>();
+        porChave.forEach((chave, intervalos) -> {
+            arvores.put(chave, ArvoreIntervalos.de(intervalos));
+            intervalos.forEach(intervalo -> porPeca.put(intervalo.pecaId, intervalo));
+        });
+        return new Indice(arvores, porPeca);
+    }
+
+    private static void indexar(Indice destino, PecaAlteradaEvento evento) {
+        destino.indexar(new Intervalo(evento.getPecaId(), evento.getMarcaVeiculo(), evento.getModeloVeiculo(),
+                evento.getAnoInicio(), evento.getAnoFim()));
+    }
+
+    /**
+     * IDs das peças que servem no veículo: cadastradas para a marca e o modelo dele (ou sem marca
+     * ou modelo definidos) e com o ano do veículo dentro do intervalo de anos da peça
+     */
+    public List<Long> compativeis(String marca, String modelo, int ano) {
+        Indice atual = indice;
+        Set<Chave> chaves = new LinkedHashSet<>();
+        chaves.add(new Chave(marca, modelo));
+        chaves.add(new Chave(marca, null));
+        chaves.add(new Chave(null, modelo));
+        chaves.add(new Chave(null, null));
+
+        List<Long> ids = new ArrayList<>();
+        for (Chave chave : chaves) {
+            ArvoreIntervalos arvore = atual.arvores.get(chave);
+            if (arvore != null) {
+                arvore.coletar(ano, ids);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * IDs das peças cadastradas para a marca, o modelo e o ano informados; filtros nulos não restringem
+     */
+    public List<Long> filtrar(String marca, String modelo, Integer ano) {
+        String marcaNormalizada = marca != null ? normalizar(marca) : null;
+        String modeloNormalizado = modelo != null ? normalizar(modelo) : null;
+
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Chave, ArvoreIntervalos> entrada : indice.arvores.entrySet()) {
+            Chave chave = entrada.getKey();
+            if (marcaNormalizada != null && !marcaNormalizada.equals(chave.marca)) {
+                continue;
+            }
+            if (modeloNormalizado != null && !modeloNormalizado.equals(chave.modelo)) {
+                continue;
+            }
+            if (ano != null) {
+                entrada.getValue().coletar(ano, ids);
+            } else {
+                entrada.getValue().coletarTodos(ids);
+            }
+        }
+        return ids;
+    }
+
+    private static String normalizar(String valor) {
+        return valor == null ? QUALQUER : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Marca e modelo normalizados; vazio quando a peça não os define
+     */
+    private static final class Chave {
+
+        private final String marca;
+        private final String modelo;
+
+        private Chave(String marca, String modelo) {
+            this.marca = normalizar(marca);
+            this.modelo = normalizar(modelo);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave outra = (Chave) o;
+            return marca.equals(outra.marca) && modelo.equals(outra.modelo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(marca, modelo);
+        }
+    }
+
+    /**
+     * Faixa de anos da peça; anos não informados deixam a faixa aberta
+     */
+    private static final class Intervalo {
+
+        private static final Comparator<Intervalo> POR_INICIO =
+                Comparator.<Intervalo>comparingInt(intervalo -> intervalo.inicio).thenComparingLong(intervalo -> intervalo.pecaId);
+
+        private final long pecaId;
+        private final Chave chave;
+        private final int inicio;
+        private final int fim;
+
+        private Intervalo(Long pecaId, String marca, String modelo, Integer anoInicio, Integer anoFim) {
+            this.pecaId = pecaId;
+            this.chave = new Chave(marca, modelo);
+            this.inicio = anoInicio != null ? anoInicio : Integer.MIN_VALUE;
+            this.fim = anoFim != null ? anoFim : Integer.MAX_VALUE;
+        }
+
+        private boolean mesmaPosicao(Intervalo outro) {
+            return chave.equals(outro.chave) && inicio == outro.inicio && fim == outro.fim;
+        }
+    }
+
+    private static final class Indice {
+
+        private final Map<Chave, ArvoreIntervalos> arvores;
+
+        /**
+         * Peça -> intervalo indexado, para retirar a peça da árvore antiga numa alteração
+         */
+        private final Map<Long, Intervalo> porPeca;
+
+        private Indice(Map<Chave, ArvoreIntervalos> arvores, Map<Long, Intervalo> porPeca) {
+            this.arvores = arvores;
+            this.porPeca = porPeca;
+        }
+
+        synchronized void indexar(Intervalo intervalo) {
+            Intervalo anterior = porPeca.get(intervalo.pecaId);
+            if (anterior != null && anterior.mesmaPosicao(intervalo)) {
+                return;
+            }
+            if (anterior != null) {
+                arvores.computeIfPresent(anterior.chave, (chave, arvore) -> arvore.sem(anterior.pecaId));
+            }
+            arvores.merge(intervalo.chave, ArvoreIntervalos.de(List.of(intervalo)),
+                    (arvore, nova) -> arvore.com(intervalo));
+            porPeca.put(intervalo.pecaId, intervalo);
+        }
+    }
+
+    /**
+     * Árvore de intervalos implícita: os intervalos ficam ordenados pelo início em um array, o nó
+     * de cada faixa é o elemento do meio e guarda o maior fim da faixa. A consulta por um ano
+     * descarta as subárvores cujo maior fim é anterior ao ano e as que começam depois dele,
+     * custando O(log n + k).
+     */
+    private static final class ArvoreIntervalos {
+
+        private final Intervalo[] intervalos;
+        private final int[] maiorFim;
+
+        private ArvoreIntervalos(Intervalo[] ordenados) {
+            this.intervalos = ordenados;
+            this.maiorFim = new int[ordenados.length];
+            calcularMaiorFim(0, ordenados.length - 1);
+        }
+
+        static ArvoreIntervalos de(List<Intervalo> intervalos) {
+            Intervalo[] ordenados = intervalos.toArray(new Intervalo[0]);
+            Arrays.sort(ordenados, Intervalo.POR_INICIO);
+            return new ArvoreIntervalos(ordenados);
+        }
+
+        ArvoreIntervalos com(Intervalo intervalo) {
+            int posicao = Arrays.binarySearch(intervalos, intervalo, Intervalo.POR_INICIO);
+            posicao = posicao >= 0 ? posicao : -posicao - 1;
+            Intervalo[] novos = new Intervalo[intervalos.length + 1];
+            System.arraycopy(intervalos, 0, novos, 0, posicao);
+            novos[posicao] = intervalo;
+            System.arraycopy(intervalos, posicao, novos, posicao + 1, intervalos.length - posicao);
+            return new ArvoreIntervalos(novos);
+        }
+
+        /**
+         * Árvore sem a peça; nula quando fica vazia (a chave sai do índice)
+         */
+        ArvoreIntervalos sem(long pecaId) {
+            Intervalo[] restantes = Arrays.stream(intervalos)
+                    .filter(intervalo -> intervalo.pecaId != pecaId)
+                    .toArray(Intervalo[]::new);
+            return restantes.length == 0 ? null : new ArvoreIntervalos(restantes);
+        }
+
+        void coletar(int ano, List<Long> destino) {
+            coletar(0, intervalos.length - 1, ano, destino);
+        }
+
+        void coletarTodos(List<Long> destino) {
+            for (Intervalo intervalo : intervalos) {
+                destino.add(intervalo.pecaId);
+            }
+        }
+
+        private void coletar(int esquerda, int direita, int ano, List<Long> destino) {
+            if (esquerda > direita) {
+                return;
+            }
+            int meio = (esquerda + direita) >>> 1;
+            if (maiorFim[meio] < ano) {
+                return;
+            }
+            coletar(esquerda, meio - 1, ano, destino);
+            // O nó e a subárvore da direita começam depois do ano
+            if (intervalos[meio].inicio > ano) {
+                return;
+            }
+            if (intervalos[meio].fim >= ano) {
+                destino.add(intervalos[meio].pecaId);
+            }
+            coletar(meio + 1, direita, ano, destino);
+        }
+
+        private int calcularMaiorFim(int esquerda, int direita) {
+            if (esquerda > direita) {
+                return Integer.MIN_VALUE;
+            }
+            int meio = (esquerda + direita) >>> 1;
+            int maior = Math.max(intervalos[meio].fim,
+                    Math.max(calcularMaiorFim(esquerda, meio - 1), calcularMaiorFim(meio + 1, direita)));
+            maiorFim[meio] = maior;
+            return maior;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.domain.model.MovimentacaoEstoque;
+import com.grupo110.oficina.domain.model.SaldoEstoque;
+import com.grupo110.oficina.domain.model.Sequencia;
+import com.grupo110.oficina.infrastructure.repository.MovimentacaoEstoqueRepository;
+import com.grupo110.oficina.infrastructure.repository.SaldoEstoqueRepository;
+import com.grupo110.oficina.infrastructure.repository.SequenciaRepository;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Livro de estoque: toda movimentação de peça vira um lançamento inserido na mesma transação da
+ * movimentação. Os lançamentos nunca são alterados, não disputam a linha da peça e, com IDs
+ * alocados em faixas, são gravados em lote no flush. Periodicamente os lançamentos são
+ * consolidados em saldos por peça; o saldo em uma data é o último saldo consolidado até ela mais
+ * os lançamentos posteriores. A consolidação só considera lançamentos com mais de
+ * oficina.estoque.saldo.margem de idade, para não deixar de fora transações ainda abertas.
+ */
+@ApplicationScoped
+@Transactional
+public class LivroEstoqueService {
+
+    @Inject
+    MovimentacaoEstoqueRepository movimentacaoEstoqueRepository;
+
+    @Inject
+    SaldoEstoqueRepository saldoEstoqueRepository;
+
+    @Inject
+    SequenciaRepository sequenciaRepository;
+
+    @ConfigProperty(name = "oficina.estoque.movimentacao.tamanho-bloco", defaultValue = "1000")
+    int tamanhoBloco;
+
+    @ConfigProperty(name = "oficina.estoque.saldo.margem", defaultValue = "5m")
+    Duration margem;
+
+    private FaixaSequencia ids;
+
+    @PostConstruct
+    void iniciar() {
+        ids = new FaixaSequencia(sequenciaRepository, Sequencia.MOVIMENTACAO_ESTOQUE, tamanhoBloco);
+    }
+
+    /**
+     * Registra uma movimentação da peça (quantidade positiva para entrada, negativa para saída)
+     */
+    public void registrar(Long pecaId, MovimentacaoEstoque.TipoMovimentacao tipo, int quantidade) {
+        registrar(pecaId, tipo, quantidade, null);
+    }
+
+    /**
+     * Registra uma movimentação da peça vinculada a uma ordem de serviço
+     */
+    public void registrar(Long pecaId, MovimentacaoEstoque.TipoMovimentacao tipo, int quantidade, Long ordemServicoId) {
+        if (quantidade == 0) {
+            return;
+        }
+        movimentacaoEstoqueRepository.persist(
+                new MovimentacaoEstoque(ids.proximo(), pecaId, tipo, quantidade, ordemServicoId));
+    }
+
+    /**
+     * Saldo da peça na data informada
+     */
+    public long saldoEm(Long pecaId, LocalDateTime data) {
+        Optional<SaldoEstoque> saldo = saldoEstoqueRepository.findUltimoAte(pecaId, data);
+        long base = saldo.map(SaldoEstoque::getQuantidade).orElse(0);
+        LocalDateTime desde = saldo.map(SaldoEstoque::getDataCorte).orElse(null);
+        return base + movimentacaoEstoqueRepository.somarQuantidade(pecaId, desde, data);
+    }
+
+    /**
+     * Lançamentos da peça no período [inicio, fim)
+     */
+    public List<MovimentacaoEstoque> listarMovimentacoes(Long pecaId, LocalDateTime inicio, LocalDateTime fim) {
+        return movimentacaoEstoqueRepository.findByPecaIdEntre(pecaId, inicio, fim);
+    }
+
+    /**
+     * Consolida os lançamentos feitos desde a última consolidação
+     */
+    @Scheduled(every = "${oficina.estoque.saldo.consolidacao:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void consolidar() {
+        // Bloqueia o contador até o commit: duas instâncias nunca consolidam o mesmo intervalo
+        sequenciaRepository.incrementar(Sequencia.CONSOLIDACAO_ESTOQUE);
+
+        LocalDateTime corte = LocalDateTime.now().minus(margem);
+        Optional<LocalDateTime> ultimoCorte = saldoEstoqueRepository.findUltimoCorte();
+        if (ultimoCorte.isPresent() && !ultimoCorte.get().isBefore(corte)) {
+            return;
+        }
+        LocalDateTime inicio = ultimoCorte.orElse(LocalDateTime.of(1970, 1, 1, 0, 0));
+        saldoEstoqueRepository.consolidar(inicio, corte);
+    }
+}
@@ -0,0 +1,221 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.AlertaEstoqueEvento;
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.infrastructure.repository.PecaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém em memória as peças ativas abaixo do mínimo (estoque <= quantidade mínima) e sem estoque,
+ * para que as listas de reposição custem O(k) em vez de uma varredura da tabela de peças.
+ * É alimentado pelos eventos de alteração de peça após o commit, montado na inicialização e
+ * reconciliado periodicamente com o banco (alterações de outras instâncias). Cada mudança de
+ * situação gera AlertaEstoqueEvento, também publicado no stream SSE do balcão. As alterações são
+ * serializadas (synchronized), o que também garante a ordem dos itens do stream.
+ */
+@ApplicationScoped
+public class MonitorEstoqueService {
+
+    @Inject
+    PecaRepository pecaRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Event<AlertaEstoqueEvento> alertaEstoque;
+
+    private final Set<Long> abaixoDoMinimo = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> semEstoque = ConcurrentHashMap.newKeySet();
+
+    private final BroadcastProcessor<AlertaEstoqueEvento> alertas = BroadcastProcessor.create();
+
+    private final EventosDuranteReconstrucao<PecaAlteradaEvento> eventosDuranteReconciliacao =
+            new EventosDuranteReconstrucao<>();
+
+    // Na primeira carga não há mudança de situação a notificar
+    private volatile boolean carregado;
+
+    @PostConstruct
+    void iniciar() {
+        registry.gaugeCollectionSize("oficina.estoque.pecas", Tags.of("situacao", "abaixo-do-minimo"), abaixoDoMinimo);
+        registry.gaugeCollectionSize("oficina.estoque.pecas", Tags.of("situacao", "sem-estoque"), semEstoque);
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        reconciliar();
+    }
+
+    /**
+     * Aplica a alteração somente depois que a transação foi confirmada
+     */
+    void aoAlterarPeca(@Observes(during = TransactionPhase.AFTER_SUCCESS) PecaAlteradaEvento evento) {
+        synchronized (this) {
+            Leitura leitura = Leitura.de(evento);
+            aplicar(evento.getPecaId(), leitura.abaixo, leitura.zerado, leitura.estoque, leitura.minimo);
+            eventosDuranteReconciliacao.registrar(evento);
+        }
+    }
+
+    /**
+     * Confere as listas com o banco, corrigindo alterações feitas por outra instância ou direto no banco.
+     * As alterações recebidas durante a consulta prevalecem sobre a linha lida, para que um retrato
+     * anterior a elas não gere alertas de ida e volta.
+     */
+    @Scheduled(every = "${oficina.estoque.monitor.reconciliacao:5m}", delayed = "${oficina.estoque.monitor.reconciliacao:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void reconciliar() {
+        synchronized (this) {
+            eventosDuranteReconciliacao.iniciar();
+        }
+        List<Object[]> situacoes;
+        try {
+            situacoes = pecaRepository.findSituacoesEstoqueBaixo();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                eventosDuranteReconciliacao.concluir();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            Map<Long, Leitura> situacaoFinal = new HashMap<>();
+            for (Object[] linha : situacoes) {
+                situacaoFinal.put((Long) linha[0], Leitura.de((Integer) linha[1], (Integer) linha[2]));
+            }
+            for (PecaAlteradaEvento evento : eventosDuranteReconciliacao.concluir()) {
+                situacaoFinal.put(evento.getPecaId(), Leitura.de(evento));
+            }
+
+            Set<Long> normalizadas = new HashSet<>(abaixoDoMinimo);
+            normalizadas.addAll(semEstoque);
+            normalizadas.removeAll(situacaoFinal.keySet());
+            situacaoFinal.forEach((id, leitura) -> aplicar(id, leitura.abaixo, leitura.zerado, leitura.estoque, leitura.minimo));
+            for (Long id : normalizadas) {
+                aplicar(id, false, false, null, null);
+            }
+            carregado = true;
+        }
+    }
+
+    /**
+     * IDs das peças ativas com estoque menor ou igual ao mínimo
+     */
+    public List<Long> listarIdsAbaixoDoMinimo() {
+        return ordenados(abaixoDoMinimo);
+    }
+
+    /**
+     * IDs das peças ativas com estoque zerado
+     */
+    public List<Long> listarIdsSemEstoque() {
+        return ordenados(semEstoque);
+    }
+
+    public long contarAbaixoDoMinimo() {
+        return abaixoDoMinimo.size();
+    }
+
+    public long contarSemEstoque() {
+        return semEstoque.size();
+    }
+
+    /**
+     * Stream das mudanças de situação; assinantes lentos perdem itens em vez de segurar os demais
+     */
+    public Multi<AlertaEstoqueEvento> streamAlertas() {
+        return alertas.onOverflow().drop();
+    }
+
+    private synchronized void aplicar(Long pecaId, boolean abaixo, boolean zerado, Integer estoque, Integer minimo) {
+        AlertaEstoqueEvento.SituacaoEstoque anterior = situacao(pecaId);
+        if (abaixo) {
+            abaixoDoMinimo.add(pecaId);
+        } else {
+            abaixoDoMinimo.remove(pecaId);
+        }
+        if (zerado) {
+            semEstoque.add(pecaId);
+        } else {
+            semEstoque.remove(pecaId);
+        }
+
+        AlertaEstoqueEvento.SituacaoEstoque atual = situacao(pecaId);
+        if (carregado && atual != anterior) {
+            AlertaEstoqueEvento alerta = new AlertaEstoqueEvento(pecaId, atual, anterior, estoque, minimo);
+            alertaEstoque.fire(alerta);
+            alertas.onNext(alerta);
+        }
+    }
+
+    private AlertaEstoqueEvento.SituacaoEstoque situacao(Long pecaId) {
+        if (semEstoque.contains(pecaId)) {
+            return AlertaEstoqueEvento.SituacaoEstoque.SEM_ESTOQUE;
+        }
+        if (abaixoDoMinimo.contains(pecaId)) {
+            return AlertaEstoqueEvento.SituacaoEstoque.ABAIXO_DO_MINIMO;
+        }
+        return AlertaEstoqueEvento.SituacaoEstoque.NORMAL;
+    }
+
+    private static List<Long> ordenados(Set<Long> ids) {
+        List<Long> lista = new ArrayList<>(ids);
+        Collections.sort(lista);
+        return lista;
+    }
+
+    /**
+     * Situação de uma peça lida do banco ou de um evento de alteração
+     */
+    private static final class Leitura {
+
+        final boolean abaixo;
+        final boolean zerado;
+        final Integer estoque;
+        final Integer minimo;
+
+        private Leitura(boolean abaixo, boolean zerado, Integer estoque, Integer minimo) {
+            this.abaixo = abaixo;
+            this.zerado = zerado;
+            this.estoque = estoque;
+            this.minimo = minimo;
+        }
+
+        /**
+         * Linha de findSituacoesEstoqueBaixo (só peças ativas)
+         */
+        static Leitura de(Integer estoque, Integer minimo) {
+            return new Leitura(minimo != null && estoque <= minimo, estoque == 0, estoque, minimo);
+        }
+
+        static Leitura de(PecaAlteradaEvento evento) {
+            Integer estoque = evento.getQuantidadeEstoque();
+            Integer minimo = evento.getQuantidadeMinima();
+            boolean abaixo = evento.isAtivo() && estoque != null && minimo != null && estoque <= minimo;
+            boolean zerado = evento.isAtivo() && estoque != null && estoque == 0;
+            return new Leitura(abaixo, zerado, estoque, minimo);
+        }
+    }
+}
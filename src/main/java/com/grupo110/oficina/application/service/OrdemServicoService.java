@@ -1,15 +1,34 @@
 package com.grupo110.oficina.application.service;
 
+import com.grupo110.oficina.application.dto.AdicionarItensRequest;
+import com.grupo110.oficina.application.dto.ItemPecaDTO;
+import com.grupo110.oficina.application.dto.ItemServicoDTO;
+import com.grupo110.oficina.application.dto.OrdemServicoDTO;
+import com.grupo110.oficina.application.event.OrdemServicoAlteradaEvento;
 import com.grupo110.oficina.domain.model.*;
+import com.grupo110.oficina.infrastructure.repository.CursorOrdemServico;
+import com.grupo110.oficina.infrastructure.repository.ItemPecaRepository;
+import com.grupo110.oficina.infrastructure.repository.ItemServicoRepository;
 import com.grupo110.oficina.infrastructure.repository.OrdemServicoRepository;
+import com.grupo110.oficina.infrastructure.repository.PaginaCursor;
+import com.grupo110.oficina.infrastructure.repository.SequenciaRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 @Transactional
@@ -24,6 +43,52 @@ public class OrdemServicoService {
     @Inject
     VeiculoService veiculoService;
     
+    @Inject
+    GeradorNumeroOS geradorNumeroOS;
+    
+    @Inject
+    PecaService pecaService;
+    
+    @Inject
+    ServicoService servicoService;
+    
+    @Inject
+    ItemPecaRepository itemPecaRepository;
+    
+    @Inject
+    ItemServicoRepository itemServicoRepository;
+    
+    @Inject
+    EstatisticasOrdemServicoService estatisticasOrdemServicoService;
+    
+    @Inject
+    FilaOrdensAtrasadasService filaOrdensAtrasadasService;
+    
+    @Inject
+    AlertasExecucaoService alertasExecucaoService;
+    
+    @Inject
+    ReservaEstoqueService reservaEstoqueService;
+    
+    @Inject
+    SequenciaRepository sequenciaRepository;
+    
+    @Inject
+    Event<OrdemServicoAlteradaEvento> ordemServicoAlterada;
+    
+    @ConfigProperty(name = "oficina.os.itens.tamanho-bloco", defaultValue = "100")
+    int tamanhoBlocoItens;
+    
+    // IDs dos itens alocados em faixas, para que os INSERTs de adicionarItens vão em lote
+    private FaixaSequencia idsItemServico;
+    private FaixaSequencia idsItemPeca;
+    
+    @PostConstruct
+    void iniciar() {
+        idsItemServico = new FaixaSequencia(sequenciaRepository, Sequencia.ITEM_SERVICO, tamanhoBlocoItens);
+        idsItemPeca = new FaixaSequencia(sequenciaRepository, Sequencia.ITEM_PECA, tamanhoBlocoItens);
+    }
+    
     /**
      * Cria uma nova ordem de serviço
      */
@@ -44,7 +109,7 @@ public class OrdemServicoService {
         }
         
         // Gerar número da OS automaticamente
-        ordemServico.setNumeroOS(gerarNumeroOS());
+        ordemServico.setNumeroOS(geradorNumeroOS.proximoNumero());
         
         // Definir status inicial
         ordemServico.setStatus(OrdemServico.StatusOrdemServico.RECEBIDA);
@@ -53,6 +118,7 @@ public class OrdemServicoService {
         ordemServico.setDataRecebimento(LocalDateTime.now());
         
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, null);
         return ordemServico;
     }
     
@@ -86,6 +152,7 @@ public class OrdemServicoService {
         ordemServico.setVeiculo(ordemServicoAtualizada.getVeiculo());
         
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, ordemServico.getStatus());
         return ordemServico;
     }
     
@@ -97,6 +164,15 @@ public class OrdemServicoService {
                 .orElseThrow(() -> new RuntimeException("Ordem de serviço não encontrada com ID: " + id));
     }
     
+    /**
+     * Busca ordem de serviço com itens e histórico, montando o DTO dentro da transação
+     */
+    public OrdemServicoDTO buscarDetalhePorId(Long id) {
+        return ordemServicoRepository.findDetalheById(id)
+                .map(OrdemServicoDTO::new)
+                .orElseThrow(() -> new RuntimeException("Ordem de serviço não encontrada com ID: " + id));
+    }
+    
     /**
      * Busca ordem de serviço por número
      */
@@ -112,6 +188,18 @@ public class OrdemServicoService {
         return ordemServicoRepository.listAll();
     }
     
+    /**
+     * Lista ordens de serviço com filtros opcionais, paginadas por cursor no banco de dados
+     */
+    public PaginaCursor<OrdemServicoDTO> listarComFiltros(Long clienteId, Long veiculoId,
+                                                          OrdemServico.StatusOrdemServico status,
+                                                          LocalDateTime dataInicial, LocalDateTime dataFinal,
+                                                          String cursor, int limite) {
+        PaginaCursor<OrdemServico> pagina = ordemServicoRepository.findByFiltrosComCursor(clienteId, veiculoId, status,
+                dataInicial, dataFinal, CursorOrdemServico.decodificar(cursor), limite);
+        return new PaginaCursor<>(resumos(pagina.getItens()), pagina.getProximoCursor());
+    }
+    
     /**
      * Lista ordens de serviço por cliente
      */
@@ -126,6 +214,20 @@ public class OrdemServicoService {
         return ordemServicoRepository.findByVeiculoId(veiculoId);
     }
     
+    /**
+     * Lista o resumo das ordens de serviço de um cliente
+     */
+    public List<OrdemServicoDTO> listarResumoPorCliente(Long clienteId) {
+        return resumos(ordemServicoRepository.findByClienteId(clienteId));
+    }
+    
+    /**
+     * Lista o resumo das ordens de serviço de um veículo
+     */
+    public List<OrdemServicoDTO> listarResumoPorVeiculo(Long veiculoId) {
+        return resumos(ordemServicoRepository.findByVeiculoId(veiculoId));
+    }
+    
     /**
      * Lista ordens de serviço por status
      */
@@ -169,17 +271,26 @@ public class OrdemServicoService {
     }
     
     /**
-     * Lista ordens de serviço atrasadas
+     * Lista o resumo das ordens de serviço atrasadas, da mais atrasada para a menos atrasada.
+     * Os IDs vêm da fila em memória; o banco só é consultado pela chave primária.
      */
-    public List<OrdemServico> listarOrdensAtrasadas() {
-        return ordemServicoRepository.findOrdensAtrasadas();
+    public List<OrdemServicoDTO> listarOrdensAtrasadas() {
+        List<Long> ids = filaOrdensAtrasadasService.listarIdsAtrasadas();
+        Map<Long, OrdemServico> ordens = ordemServicoRepository.findResumoByIds(ids).stream()
+                .collect(Collectors.toMap(OrdemServico::getId, Function.identity()));
+        return ids.stream()
+                .map(ordens::get)
+                .filter(Objects::nonNull)
+                .map(OrdemServicoDTO::resumo)
+                .collect(Collectors.toList());
     }
     
     /**
      * Lista ordens de serviço em execução há mais de X dias
      */
     public List<OrdemServico> listarOrdensEmExecucaoAntigas(int diasLimite) {
-        return ordemServicoRepository.findOrdensEmExecucaoAntigas(diasLimite);
+        List<Long> ids = alertasExecucaoService.listarIdsIniciadasAntesDe(LocalDateTime.now().minusDays(diasLimite));
+        return ordemServicoRepository.findResumoByIds(ids);
     }
     
     /**
@@ -201,9 +312,10 @@ public class OrdemServicoService {
      */
     public OrdemServico alterarStatus(Long id, OrdemServico.StatusOrdemServico novoStatus) {
         OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
         
         // Validar transições de status permitidas
-        validarTransicaoStatus(ordemServico.getStatus(), novoStatus);
+        validarTransicaoStatus(statusAnterior, novoStatus);
         
         // Aplicar o novo status
         ordemServico.setStatus(novoStatus);
@@ -220,8 +332,10 @@ public class OrdemServicoService {
                 ordemServico.setDataEntrega(LocalDateTime.now());
                 break;
         }
+        movimentarReservas(ordemServico, novoStatus);
         
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
         return ordemServico;
     }
     
@@ -230,8 +344,10 @@ public class OrdemServicoService {
      */
     public OrdemServico iniciarDiagnostico(Long id) {
         OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
         ordemServico.iniciarDiagnostico();
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
         return ordemServico;
     }
     
@@ -240,8 +356,10 @@ public class OrdemServicoService {
      */
     public OrdemServico aguardarAprovacao(Long id) {
         OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
         ordemServico.aguardarAprovacao();
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
         return ordemServico;
     }
     
@@ -250,8 +368,12 @@ public class OrdemServicoService {
      */
     public OrdemServico iniciarExecucao(Long id) {
         OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
+        validarTransicaoStatus(statusAnterior, OrdemServico.StatusOrdemServico.EM_EXECUCAO);
         ordemServico.iniciarExecucao();
+        movimentarReservas(ordemServico, OrdemServico.StatusOrdemServico.EM_EXECUCAO);
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
         return ordemServico;
     }
     
@@ -260,8 +382,12 @@ public class OrdemServicoService {
      */
     public OrdemServico finalizar(Long id) {
         OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
+        validarTransicaoStatus(statusAnterior, OrdemServico.StatusOrdemServico.FINALIZADA);
         ordemServico.finalizar();
+        movimentarReservas(ordemServico, OrdemServico.StatusOrdemServico.FINALIZADA);
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
         return ordemServico;
     }
     
@@ -270,11 +396,95 @@ public class OrdemServicoService {
      */
     public OrdemServico entregar(Long id) {
         OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
+        validarTransicaoStatus(statusAnterior, OrdemServico.StatusOrdemServico.ENTREGUE);
         ordemServico.entregar();
         ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
+        return ordemServico;
+    }
+    
+    /**
+     * Cancela a ordem de serviço, liberando as peças reservadas
+     */
+    public OrdemServico cancelar(Long id) {
+        OrdemServico ordemServico = buscarPorId(id);
+        OrdemServico.StatusOrdemServico statusAnterior = ordemServico.getStatus();
+        validarTransicaoStatus(statusAnterior, OrdemServico.StatusOrdemServico.CANCELADA);
+        movimentarReservas(ordemServico, OrdemServico.StatusOrdemServico.CANCELADA);
+        ordemServico.cancelar();
+        ordemServicoRepository.persist(ordemServico);
+        publicarAlteracao(ordemServico, statusAnterior);
         return ordemServico;
     }
     
+    /**
+     * Adiciona vários itens de serviço e de peça à ordem em uma única passada: peças e serviços
+     * são carregados com uma consulta cada, os totais são atualizados por diferença e tudo é
+     * gravado em um único flush
+     */
+    public OrdemServicoDTO adicionarItens(Long id, AdicionarItensRequest request) {
+        OrdemServico ordemServico = buscarPorId(id);
+        
+        if (ordemServico.getStatus().isEncerrado()) {
+            throw new RuntimeException("Não é possível adicionar itens a uma ordem finalizada, entregue ou cancelada");
+        }
+        
+        List<ItemServicoDTO> itensServicoDTO = request.getItensServico() != null ? request.getItensServico() : List.of();
+        List<ItemPecaDTO> itensPecaDTO = request.getItensPeca() != null ? request.getItensPeca() : List.of();
+        if (itensServicoDTO.isEmpty() && itensPecaDTO.isEmpty()) {
+            throw new RuntimeException("Informe ao menos um item");
+        }
+        
+        Map<Long, Servico> servicos = servicoService.buscarPorIds(itensServicoDTO.stream()
+                        .map(ItemServicoDTO::getServicoId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Servico::getId, Function.identity()));
+        Map<Long, Peca> pecas = pecaService.buscarPorIds(itensPecaDTO.stream()
+                        .map(ItemPecaDTO::getPecaId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Peca::getId, Function.identity()));
+        
+        List<ItemServico> itensServico = new ArrayList<>(itensServicoDTO.size());
+        for (ItemServicoDTO dto : itensServicoDTO) {
+            Servico servico = servicos.get(dto.getServicoId());
+            if (servico == null || !Boolean.TRUE.equals(servico.getAtivo())) {
+                throw new RuntimeException("Serviço não encontrado ou inativo: " + dto.getServicoId());
+            }
+            validarQuantidade(dto.getQuantidade());
+            ItemServico item = new ItemServico(ordemServico, servico, dto.getQuantidade(),
+                    dto.getValorUnitario() != null ? dto.getValorUnitario() : servico.getValorBase());
+            item.setId(idsItemServico.proximo());
+            item.setObservacoes(dto.getObservacoes());
+            ordemServico.adicionarItemServico(item);
+            itensServico.add(item);
+        }
+        
+        List<ItemPeca> itensPeca = new ArrayList<>(itensPecaDTO.size());
+        for (ItemPecaDTO dto : itensPecaDTO) {
+            Peca peca = pecas.get(dto.getPecaId());
+            if (peca == null || !Boolean.TRUE.equals(peca.getAtivo())) {
+                throw new RuntimeException("Peça não encontrada ou inativa: " + dto.getPecaId());
+            }
+            validarQuantidade(dto.getQuantidade());
+            ItemPeca item = new ItemPeca(ordemServico, peca, dto.getQuantidade(),
+                    dto.getValorUnitario() != null ? dto.getValorUnitario() : peca.getPrecoVenda());
+            item.setId(idsItemPeca.proximo());
+            item.setObservacoes(dto.getObservacoes());
+            ordemServico.adicionarItemPeca(item);
+            itensPeca.add(item);
+        }
+        
+        // Ordem já aprovada: as peças novas são reservadas na hora
+        if (ordemServico.getStatus() == OrdemServico.StatusOrdemServico.EM_EXECUCAO) {
+            reservaEstoqueService.reservar(itensPeca);
+        }
+        
+        itemServicoRepository.persist(itensServico);
+        itemPecaRepository.persist(itensPeca);
+        ordemServicoRepository.flush();
+        publicarAlteracao(ordemServico, ordemServico.getStatus());
+        return OrdemServicoDTO.resumo(ordemServico);
+    }
+    
     /**
      * Calcula valores da ordem de serviço
      */
@@ -286,11 +496,13 @@ public class OrdemServicoService {
     }
     
     /**
-     * Remove uma ordem de serviço
+     * Remove uma ordem de serviço, devolvendo ao disponível as peças ainda reservadas
      */
     public void removerOrdemServico(Long id) {
         OrdemServico ordemServico = buscarPorId(id);
+        reservaEstoqueService.liberar(ordemServico.getItensPeca());
         ordemServicoRepository.delete(ordemServico);
+        ordemServicoAlterada.fire(new OrdemServicoAlteradaEvento(id, ordemServico.getStatus(), null, null, null, Set.of()));
     }
     
     /**
@@ -308,10 +520,10 @@ public class OrdemServicoService {
     }
     
     /**
-     * Conta ordens de serviço por status
+     * Conta ordens de serviço por status (contadores em memória, sem consulta ao banco)
      */
     public long contarPorStatus(OrdemServico.StatusOrdemServico status) {
-        return ordemServicoRepository.countByStatus(status);
+        return estatisticasOrdemServicoService.contarPorStatus(status);
     }
     
     /**
@@ -321,17 +533,6 @@ public class OrdemServicoService {
         return ordemServicoRepository.countByClienteId(clienteId);
     }
     
-    /**
-     * Gera número único para a ordem de serviço
-     */
-    private String gerarNumeroOS() {
-        String numeroOS;
-        do {
-            numeroOS = "OS" + System.currentTimeMillis();
-        } while (ordemServicoRepository.existsByNumeroOS(numeroOS));
-        return numeroOS;
-    }
-    
     /**
      * Valida transições de status permitidas
      */
@@ -342,11 +543,56 @@ public class OrdemServicoService {
             case AGUARDANDO_APROVACAO -> novoStatus == OrdemServico.StatusOrdemServico.EM_EXECUCAO;
             case EM_EXECUCAO -> novoStatus == OrdemServico.StatusOrdemServico.FINALIZADA;
             case FINALIZADA -> novoStatus == OrdemServico.StatusOrdemServico.ENTREGUE;
-            case ENTREGUE -> false; // Não pode alterar status após entrega
+            case ENTREGUE, CANCELADA -> false; // Não pode alterar status após entrega ou cancelamento
         };
         
+        // Qualquer ordem ainda em aberto pode ser cancelada
+        if (novoStatus == OrdemServico.StatusOrdemServico.CANCELADA) {
+            transicaoValida = !statusAtual.isEncerrado();
+        }
+        
         if (!transicaoValida) {
             throw new RuntimeException("Transição de status inválida: " + statusAtual + " -> " + novoStatus);
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Reserva as peças na aprovação (início da execução), dá baixa na finalização e libera no cancelamento
+     */
+    private void movimentarReservas(OrdemServico ordemServico, OrdemServico.StatusOrdemServico novoStatus) {
+        switch (novoStatus) {
+            case EM_EXECUCAO -> reservaEstoqueService.reservar(ordemServico.getItensPeca());
+            case FINALIZADA -> reservaEstoqueService.baixar(ordemServico.getItensPeca());
+            case CANCELADA -> reservaEstoqueService.liberar(ordemServico.getItensPeca());
+            default -> { }
+        }
+    }
+    
+    private List<OrdemServicoDTO> resumos(List<OrdemServico> ordens) {
+        return ordens.stream()
+                .map(OrdemServicoDTO::resumo)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Notifica os observadores (contadores, filas) após a alteração da ordem
+     */
+    private void publicarAlteracao(OrdemServico ordemServico, OrdemServico.StatusOrdemServico statusAnterior) {
+        // Categorias só interessam ao detector de execuções paradas; evita carregar os itens nos demais casos
+        Set<Servico.CategoriaServico> categorias = ordemServico.getStatus() == OrdemServico.StatusOrdemServico.EM_EXECUCAO
+                ? ordemServico.getItensServico().stream()
+                        .map(item -> item.getServico().getCategoria())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())
+                : Set.of();
+        ordemServicoAlterada.fire(new OrdemServicoAlteradaEvento(
+                ordemServico.getId(), statusAnterior, ordemServico.getStatus(), ordemServico.getPrazoEntrega(),
+                ordemServico.getDataInicioExecucao(), categorias));
+    }
+    
+    private void validarQuantidade(Integer quantidade) {
+        if (quantidade == null || quantidade <= 0) {
+            throw new RuntimeException("Quantidade deve ser positiva");
+        }
+    }
+}
@@ -1,15 +1,35 @@
 package com.grupo110.oficina.application.service;
 
+import com.grupo110.oficina.application.dto.MovimentacaoEstoqueDTO;
+import com.grupo110.oficina.application.dto.ResultadoMovimentacaoEstoqueDTO;
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.domain.model.MovimentacaoEstoque;
 import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.domain.model.Veiculo;
+import com.grupo110.oficina.infrastructure.repository.FiltroConsulta;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
 import com.grupo110.oficina.infrastructure.repository.PecaRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 @Transactional
@@ -18,6 +38,24 @@ public class PecaService {
     @Inject
     PecaRepository pecaRepository;
     
+    @Inject
+    LivroEstoqueService livroEstoqueService;
+    
+    @Inject
+    MonitorEstoqueService monitorEstoqueService;
+    
+    @Inject
+    IndiceBuscaPecaService indiceBuscaPecaService;
+    
+    @Inject
+    IndiceCompatibilidadePecaService indiceCompatibilidadePecaService;
+    
+    @Inject
+    VeiculoService veiculoService;
+    
+    @Inject
+    Event<PecaAlteradaEvento> pecaAlterada;
+    
     /**
      * Cria uma nova peça
      */
@@ -53,11 +91,15 @@ public class PecaService {
         }
         
         pecaRepository.persist(peca);
+        livroEstoqueService.registrar(peca.getId(), MovimentacaoEstoque.TipoMovimentacao.AJUSTE,
+                peca.getQuantidadeEstoque());
+        publicarAlteracao(peca);
         return peca;
     }
     
     /**
-     * Atualiza uma peça existente
+     * Atualiza os dados cadastrais de uma peça existente; a quantidade em estoque do corpo é ignorada,
+     * pois o saldo só muda pelas movimentações de estoque
      */
     public Peca atualizarPeca(Long id, @Valid Peca pecaAtualizada) {
         Peca peca = pecaRepository.findByIdOptional(id)
@@ -91,17 +133,12 @@ public class PecaService {
             throw new RuntimeException("Preço de venda deve ser maior que o preço de custo");
         }
         
-        // Validar se a quantidade em estoque é não negativa
-        if (pecaAtualizada.getQuantidadeEstoque() == null || pecaAtualizada.getQuantidadeEstoque() < 0) {
-            throw new RuntimeException("Quantidade em estoque deve ser não negativa");
-        }
-        
         // Validar se a quantidade mínima é não negativa
         if (pecaAtualizada.getQuantidadeMinima() == null || pecaAtualizada.getQuantidadeMinima() < 0) {
             throw new RuntimeException("Quantidade mínima deve ser não negativa");
         }
-        
-        // Atualizar campos
+
+        // Atualizar campos cadastrais (estoque e reserva ficam com os UPDATEs condicionais)
         peca.setCodigo(pecaAtualizada.getCodigo());
         peca.setNome(pecaAtualizada.getNome());
         peca.setDescricao(pecaAtualizada.getDescricao());
@@ -112,13 +149,13 @@ public class PecaService {
         peca.setAnoFim(pecaAtualizada.getAnoFim());
         peca.setPrecoCusto(pecaAtualizada.getPrecoCusto());
         peca.setPrecoVenda(pecaAtualizada.getPrecoVenda());
-        peca.setQuantidadeEstoque(pecaAtualizada.getQuantidadeEstoque());
         peca.setQuantidadeMinima(pecaAtualizada.getQuantidadeMinima());
         peca.setUnidadeMedida(pecaAtualizada.getUnidadeMedida());
         peca.setLocalizacaoEstoque(pecaAtualizada.getLocalizacaoEstoque());
         peca.setCategoria(pecaAtualizada.getCategoria());
         peca.setAtivo(pecaAtualizada.getAtivo());
         pecaRepository.persist(peca);
+        publicarAlteracao(peca);
         return peca;
     }
     
@@ -130,6 +167,13 @@ public class PecaService {
                 .orElseThrow(() -> new RuntimeException("Peça não encontrada com ID: " + id));
     }
     
+    /**
+     * Busca peças por IDs em uma única consulta
+     */
+    public List<Peca> buscarPorIds(Collection<Long> ids) {
+        return pecaRepository.findByIds(ids);
+    }
+    
     /**
      * Busca peça por código
      */
@@ -146,6 +190,27 @@ public class PecaService {
                 .orElseThrow(() -> new RuntimeException("Peça não encontrada com nome: " + nome));
     }
     
+    /**
+     * Busca textual por código, nome, descrição, fabricante e veículo, tolerante a erros de digitação
+     * (IDs do índice de busca, peças carregadas em uma única consulta e devolvidas por relevância)
+     */
+    public List<Peca> buscarPorTexto(String texto, int limite) {
+        List<Long> ids = indiceBuscaPecaService.buscar(texto, limite);
+        Map<Long, Peca> pecas = pecaRepository.findByIds(ids).stream()
+                .collect(Collectors.toMap(Peca::getId, Function.identity()));
+        return ids.stream()
+                .map(pecas::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Sugestões de termos para autocompletar a busca textual
+     */
+    public List<String> sugerirTermos(String texto, int limite) {
+        return indiceBuscaPecaService.sugerir(texto, limite);
+    }
+    
     /**
      * Lista todas as peças
      */
@@ -153,6 +218,19 @@ public class PecaService {
         return pecaRepository.listAll();
     }
     
+    /**
+     * Lista peças com filtros opcionais, paginadas no banco de dados
+     */
+    public Pagina<Peca> listarPaginado(String nome, String categoria, String marcaVeiculo, Boolean ativo,
+                                       int pagina, int tamanho) {
+        FiltroConsulta filtro = new FiltroConsulta()
+                .contemIgnoreCase("nome", nome)
+                .em("categoria", categoriasCorrespondentes(categoria))
+                .contemIgnoreCase("marcaVeiculo", marcaVeiculo)
+                .igual("ativo", ativo);
+        return pecaRepository.findPaginado(filtro, Sort.by("id"), pagina, tamanho);
+    }
+    
     /**
      * Lista peças ativas
      */
@@ -175,38 +253,64 @@ public class PecaService {
     }
     
     /**
-     * Lista peças por marca de veículo
+     * Lista peças por marca de veículo (IDs do índice de compatibilidade, sem varrer a tabela);
+     * a marca é comparada sem diferenciar maiúsculas nem espaços nas pontas
      */
     public List<Peca> listarPorMarcaVeiculo(String marcaVeiculo) {
-        return pecaRepository.findByMarcaVeiculo(marcaVeiculo);
+        return pecaRepository.findByIds(indiceCompatibilidadePecaService.filtrar(marcaVeiculo, null, null));
     }
     
     /**
-     * Lista peças por modelo de veículo
+     * Lista peças por modelo de veículo (IDs do índice de compatibilidade, sem varrer a tabela);
+     * o modelo é comparado sem diferenciar maiúsculas nem espaços nas pontas
      */
     public List<Peca> listarPorModeloVeiculo(String modeloVeiculo) {
-        return pecaRepository.findByModeloVeiculo(modeloVeiculo);
+        return pecaRepository.findByIds(indiceCompatibilidadePecaService.filtrar(null, modeloVeiculo, null));
     }
     
     /**
-     * Lista peças por ano de veículo
+     * Lista peças por ano de veículo (IDs do índice de compatibilidade, sem varrer a tabela);
+     * ano inicial ou final não informado na peça deixa a faixa aberta daquele lado
      */
     public List<Peca> listarPorAnoVeiculo(Integer ano) {
-        return pecaRepository.findByAnoInicioLessThanEqualAndAnoFimGreaterThanEqual(ano);
+        return pecaRepository.findByIds(indiceCompatibilidadePecaService.filtrar(null, null, ano));
+    }
+    
+    /**
+     * Lista as peças ativas que servem no veículo de marca, modelo e ano informados, ordenadas por nome;
+     * com apenasEmEstoque, somente as que têm quantidade disponível (não reservada)
+     */
+    public List<Peca> listarCompativeis(String marca, String modelo, Integer ano, boolean apenasEmEstoque) {
+        if (marca == null || modelo == null || ano == null) {
+            throw new RuntimeException("Informe marca, modelo e ano do veículo");
+        }
+        return pecaRepository.findByIds(indiceCompatibilidadePecaService.compativeis(marca, modelo, ano)).stream()
+                .filter(peca -> Boolean.TRUE.equals(peca.getAtivo()))
+                .filter(peca -> !apenasEmEstoque || peca.getQuantidadeDisponivel() > 0)
+                .sorted(Comparator.comparing(Peca::getNome, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Lista as peças ativas que servem no veículo cadastrado; veículo inexistente gera "Veículo não encontrado"
+     */
+    public List<Peca> listarCompativeisComVeiculo(Long veiculoId, boolean apenasEmEstoque) {
+        Veiculo veiculo = veiculoService.buscarPorId(veiculoId);
+        return listarCompativeis(veiculo.getMarca(), veiculo.getModelo(), veiculo.getAno(), apenasEmEstoque);
     }
     
     /**
-     * Lista peças com estoque baixo
+     * Lista peças com estoque baixo (IDs do monitor de estoque, sem varrer a tabela)
      */
     public List<Peca> listarComEstoqueBaixo() {
-        return pecaRepository.findPecasComEstoqueBaixo();
+        return pecaRepository.findByIds(monitorEstoqueService.listarIdsAbaixoDoMinimo());
     }
     
     /**
-     * Lista peças sem estoque
+     * Lista peças sem estoque (IDs do monitor de estoque, sem varrer a tabela)
      */
     public List<Peca> listarSemEstoque() {
-        return pecaRepository.findPecasSemEstoque();
+        return pecaRepository.findByIds(monitorEstoqueService.listarIdsSemEstoque());
     }
     
     /**
@@ -272,6 +376,7 @@ public class PecaService {
         Peca peca = buscarPorId(id);
         peca.setAtivo(false);
         pecaRepository.persist(peca);
+        publicarAlteracao(peca);
         return peca;
     }
     
@@ -282,6 +387,7 @@ public class PecaService {
         Peca peca = buscarPorId(id);
         peca.setAtivo(true);
         pecaRepository.persist(peca);
+        publicarAlteracao(peca);
         return peca;
     }
     
@@ -292,19 +398,28 @@ public class PecaService {
         Peca peca = buscarPorId(id);
         peca.setAtivo(false);
         pecaRepository.persist(peca);
+        publicarAlteracao(peca);
     }
     
     /**
-     * Atualiza estoque da peça
+     * Atualiza estoque da peça (inventário); não pode ficar abaixo da quantidade reservada
      */
     public Peca atualizarEstoque(Long id, Integer novaQuantidade) {
         if (novaQuantidade == null || novaQuantidade < 0) {
             throw new RuntimeException("Quantidade em estoque deve ser não negativa");
         }
         
-        Peca peca = buscarPorId(id);
-        peca.setQuantidadeEstoque(novaQuantidade);
-        pecaRepository.persist(peca);
+        // A linha fica bloqueada até o commit, então a diferença lançada no livro é exata
+        Peca peca = pecaRepository.findByIdOptional(id, LockModeType.PESSIMISTIC_WRITE)
+                .orElseThrow(() -> new RuntimeException("Peça não encontrada com ID: " + id));
+        int estoqueAnterior = peca.getQuantidadeEstoque();
+        if (!pecaRepository.definirEstoque(id, novaQuantidade)) {
+            throw new RuntimeException("Quantidade em estoque não pode ser menor que a reservada: "
+                    + peca.getQuantidadeReservada());
+        }
+        livroEstoqueService.registrar(id, MovimentacaoEstoque.TipoMovimentacao.AJUSTE, novaQuantidade - estoqueAnterior);
+        peca = recarregar(id);
+        publicarAlteracao(peca);
         return peca;
     }
     
@@ -316,26 +431,91 @@ public class PecaService {
             throw new RuntimeException("Quantidade a adicionar deve ser maior que zero");
         }
         
-        Peca peca = buscarPorId(id);
-        peca.adicionarEstoque(quantidade);
-        pecaRepository.persist(peca);
+        if (!pecaRepository.adicionarEstoque(id, quantidade)) {
+            throw new RuntimeException("Peça não encontrada com ID: " + id);
+        }
+        livroEstoqueService.registrar(id, MovimentacaoEstoque.TipoMovimentacao.ENTRADA, quantidade);
+        Peca peca = recarregar(id);
+        publicarAlteracao(peca);
         return peca;
     }
     
     /**
-     * Remove do estoque da peça
+     * Remove do estoque da peça (somente da quantidade não reservada)
      */
     public Peca removerEstoque(Long id, Integer quantidade) {
         if (quantidade == null || quantidade <= 0) {
             throw new RuntimeException("Quantidade a remover deve ser maior que zero");
         }
         
-        Peca peca = buscarPorId(id);
-        peca.removerEstoque(quantidade);
-        pecaRepository.persist(peca);
+        if (!pecaRepository.removerEstoque(id, quantidade)) {
+            Peca peca = buscarPorId(id);
+            throw new RuntimeException("Estoque insuficiente: disponível " + peca.getQuantidadeDisponivel());
+        }
+        livroEstoqueService.registrar(id, MovimentacaoEstoque.TipoMovimentacao.SAIDA, -quantidade);
+        Peca peca = recarregar(id);
+        publicarAlteracao(peca);
         return peca;
     }
     
+    /**
+     * Aplica uma lista de movimentações (código, quantidade com sinal) em uma única transação.
+     * As peças são lidas com uma consulta e bloqueadas; cada linha é validada contra o saldo já
+     * movimentado pelas linhas anteriores e as alterações (e os lançamentos no livro de estoque)
+     * vão ao banco em um flush só, agrupadas em lotes JDBC. Linhas inválidas são recusadas sem impedir as demais.
+     */
+    public List<ResultadoMovimentacaoEstoqueDTO> movimentarEstoque(List<MovimentacaoEstoqueDTO> movimentacoes) {
+        Set<String> codigos = movimentacoes.stream()
+                .map(MovimentacaoEstoqueDTO::getCodigo)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Peca> pecas = pecaRepository.findByCodigosParaAtualizacao(codigos).stream()
+                .collect(Collectors.toMap(Peca::getCodigo, Function.identity()));
+        
+        List<ResultadoMovimentacaoEstoqueDTO> resultados = new ArrayList<>(movimentacoes.size());
+        for (MovimentacaoEstoqueDTO movimentacao : movimentacoes) {
+            Integer quantidade = movimentacao.getQuantidade();
+            Peca peca = pecas.get(movimentacao.getCodigo());
+            if (peca == null) {
+                resultados.add(ResultadoMovimentacaoEstoqueDTO.rejeitada(movimentacao,
+                        "Peça não encontrada com código: " + movimentacao.getCodigo()));
+            } else if (quantidade == null || quantidade == 0) {
+                resultados.add(ResultadoMovimentacaoEstoqueDTO.rejeitada(movimentacao,
+                        "Quantidade deve ser diferente de zero"));
+            } else if (quantidade < 0 && peca.getQuantidadeDisponivel() < -quantidade) {
+                resultados.add(ResultadoMovimentacaoEstoqueDTO.rejeitada(movimentacao,
+                        "Estoque insuficiente: disponível " + peca.getQuantidadeDisponivel()));
+            } else {
+                peca.setQuantidadeEstoque(peca.getQuantidadeEstoque() + quantidade);
+                livroEstoqueService.registrar(peca.getId(), quantidade > 0
+                        ? MovimentacaoEstoque.TipoMovimentacao.ENTRADA
+                        : MovimentacaoEstoque.TipoMovimentacao.SAIDA, quantidade);
+                resultados.add(ResultadoMovimentacaoEstoqueDTO.aplicada(movimentacao, peca.getId(),
+                        peca.getQuantidadeEstoque()));
+            }
+        }
+        
+        pecaRepository.flush();
+        pecas.values().forEach(this::publicarAlteracao);
+        return resultados;
+    }
+    
+    /**
+     * Saldo da peça em uma data, pelo livro de estoque
+     */
+    public long consultarSaldoEm(Long id, LocalDateTime data) {
+        buscarPorId(id);
+        return livroEstoqueService.saldoEm(id, data);
+    }
+    
+    /**
+     * Lançamentos do livro de estoque da peça no período [inicio, fim)
+     */
+    public List<MovimentacaoEstoque> listarMovimentacoes(Long id, LocalDateTime inicio, LocalDateTime fim) {
+        buscarPorId(id);
+        return livroEstoqueService.listarMovimentacoes(id, inicio, fim);
+    }
+    
     /**
      * Atualiza preços da peça
      */
@@ -402,13 +582,42 @@ public class PecaService {
      * Conta peças com estoque baixo
      */
     public long contarComEstoqueBaixo() {
-        return pecaRepository.countPecasComEstoqueBaixo();
+        return monitorEstoqueService.contarAbaixoDoMinimo();
     }
     
     /**
      * Conta peças sem estoque
      */
     public long contarSemEstoque() {
-        return pecaRepository.countPecasSemEstoque();
+        return monitorEstoqueService.contarSemEstoque();
+    }
+    
+    /**
+     * Publica o estado da peça para os índices em memória (monitor de estoque, busca e compatibilidade), aplicado após o commit
+     */
+    private void publicarAlteracao(Peca peca) {
+        pecaAlterada.fire(new PecaAlteradaEvento(peca));
+    }
+    
+    /**
+     * Relê a peça do banco depois de uma movimentação feita por UPDATE direto
+     */
+    private Peca recarregar(Long id) {
+        Peca peca = buscarPorId(id);
+        pecaRepository.getEntityManager().refresh(peca);
+        return peca;
+    }
+    
+    /**
+     * Categorias cujo nome contém o texto informado (null quando não há filtro)
+     */
+    private List<Peca.CategoriaPeca> categoriasCorrespondentes(String categoria) {
+        if (categoria == null || categoria.trim().isEmpty()) {
+            return null;
+        }
+        String termo = categoria.trim().toLowerCase();
+        return Arrays.stream(Peca.CategoriaPeca.values())
+                .filter(c -> c.name().toLowerCase().contains(termo))
+                .toList();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.grupo110.oficina.application.service;
+
+/**
+ * Refresh token ausente, desconhecido, já usado ou expirado. A renovação não desfaz o que
+ * fez antes da recusa (consumo do token, revogação da família), por isso não é uma falha
+ * qualquer de RuntimeException.
+ */
+public class RefreshTokenInvalidoException extends RuntimeException {
+
+    public RefreshTokenInvalidoException(String message) {
+        super(message);
+    }
+}
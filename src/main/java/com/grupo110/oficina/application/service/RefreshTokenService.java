@@ -0,0 +1,164 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.UsuarioAlteradoEvento;
+import com.grupo110.oficina.domain.model.RefreshToken;
+import com.grupo110.oficina.infrastructure.repository.RefreshTokenRepository;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Refresh tokens opacos com rotação: cada uso gera um novo token e invalida o anterior.
+ * A reapresentação de um token já rotacionado indica vazamento e revoga toda a família
+ * (todos os tokens derivados do mesmo login). Os registros ficam na tabela refresh_tokens,
+ * identificados pelo hash SHA-256 do token, então qualquer instância renova ou revoga os
+ * tokens emitidos pelas outras. Expiram após oficina.jwt.refresh.duracao-segundos e são
+ * purgados periodicamente.
+ */
+@ApplicationScoped
+public class RefreshTokenService {
+
+    private static final int TAMANHO_TOKEN = 32;
+
+    private static final String SEPARADOR_ROLES = ",";
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Inject
+    RefreshTokenRepository refreshTokenRepository;
+
+    @ConfigProperty(name = "oficina.jwt.refresh.duracao-segundos", defaultValue = "28800")
+    long duracaoSegundos;
+
+    /**
+     * Emite o primeiro refresh token de um login, iniciando uma nova família
+     */
+    @Transactional
+    public String emitir(Long usuarioId, String username, String... roles) {
+        String token = novoToken();
+        RefreshToken registro = new RefreshToken();
+        registro.setTokenHash(resumo(token));
+        registro.setFamilia(registro.getTokenHash());
+        registro.setUsuarioId(usuarioId);
+        registro.setUsername(username);
+        registro.setRoles(String.join(SEPARADOR_ROLES, roles));
+        registro.setExpiraEm(Instant.now().plusSeconds(duracaoSegundos));
+        refreshTokenRepository.persist(registro);
+        return token;
+    }
+
+    /**
+     * Consome o refresh token e devolve o registro com o token que o substitui.
+     * A família mantém a expiração original: a renovação não estende a sessão.
+     * Uma recusa não desfaz a transação: o consumo e a revogação da família ficam gravados.
+     */
+    @Transactional(dontRollbackOn = RefreshTokenInvalidoException.class)
+    public RegistroRefresh renovar(String token) {
+        if (token == null || token.isBlank()) {
+            throw new RefreshTokenInvalidoException("Refresh token não informado");
+        }
+
+        String tokenHash = resumo(token);
+        if (!refreshTokenRepository.consumir(tokenHash)) {
+            // Se o registro existe, ele já foi rotacionado: reuso (ou uso concorrente) do mesmo token
+            refreshTokenRepository.findByIdOptional(tokenHash)
+                    .ifPresent(reutilizado -> refreshTokenRepository.revogarFamilia(reutilizado.getFamilia()));
+            throw new RefreshTokenInvalidoException("Refresh token inválido");
+        }
+        RefreshToken atual = refreshTokenRepository.findById(tokenHash);
+        if (atual.expirado(Instant.now())) {
+            throw new RefreshTokenInvalidoException("Refresh token expirado");
+        }
+
+        String novoToken = novoToken();
+        refreshTokenRepository.persist(atual.rotacionar(resumo(novoToken)));
+        return new RegistroRefresh(novoToken, atual.getUsuarioId(), atual.getUsername(),
+                atual.getRoles().split(SEPARADOR_ROLES));
+    }
+
+    /**
+     * Revoga todos os refresh tokens do usuário
+     */
+    @Transactional
+    public void revogarUsuario(Long usuarioId) {
+        refreshTokenRepository.revogarUsuario(usuarioId);
+    }
+
+    /**
+     * Alterações de perfil ou situação do usuário invalidam as sessões renováveis, pois os
+     * papéis ficam gravados no registro; a revogação entra na mesma transação da alteração
+     */
+    void aoAlterarUsuario(@Observes UsuarioAlteradoEvento evento) {
+        revogarUsuario(evento.getUsuarioId());
+    }
+
+    @Scheduled(every = "${oficina.jwt.refresh.purga:1m}")
+    @Transactional
+    void purgarExpirados() {
+        refreshTokenRepository.removerExpirados(Instant.now());
+    }
+
+    private String novoToken() {
+        byte[] bytes = new byte[TAMANHO_TOKEN];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Hash SHA-256 do token em hexadecimal; o valor do token não é gravado
+     */
+    private static String resumo(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Resultado de uma renovação; guarda o necessário para emitir o access token
+     * sem consultar o usuário no banco
+     */
+    public static final class RegistroRefresh {
+
+        private final String token;
+        private final Long usuarioId;
+        private final String username;
+        private final String[] roles;
+
+        RegistroRefresh(String token, Long usuarioId, String username, String[] roles) {
+            this.token = token;
+            this.usuarioId = usuarioId;
+            this.username = username;
+            this.roles = roles.clone();
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public Long getUsuarioId() {
+            return usuarioId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String[] getRoles() {
+            return roles.clone();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.domain.model.ItemPeca;
+import com.grupo110.oficina.domain.model.MovimentacaoEstoque;
+import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.infrastructure.repository.PecaRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reserva de peças das ordens de serviço: reserva na aprovação (início da execução), baixa na
+ * finalização e liberação no cancelamento. Cada movimento é um UPDATE condicional na peça;
+ * se uma peça não tiver saldo a exceção desfaz a transação inteira, inclusive as reservas
+ * já feitas. Os itens são processados em ordem de peça para que duas ordens com as mesmas
+ * peças bloqueiem as linhas na mesma sequência (sem deadlock).
+ */
+@ApplicationScoped
+@Transactional
+public class ReservaEstoqueService {
+
+    @Inject
+    PecaRepository pecaRepository;
+
+    @Inject
+    LivroEstoqueService livroEstoqueService;
+
+    @Inject
+    Event<PecaAlteradaEvento> pecaAlterada;
+
+    /**
+     * Reserva os itens ainda não reservados
+     */
+    public void reservar(Collection<ItemPeca> itens) {
+        for (ItemPeca item : porPeca(itens)) {
+            if (item.getSituacaoReserva() != null) {
+                continue;
+            }
+            if (!pecaRepository.reservarEstoque(item.getPeca().getId(), item.getQuantidade())) {
+                throw new RuntimeException("Estoque insuficiente para a peça: " + item.getPeca().getNome());
+            }
+            item.setSituacaoReserva(ItemPeca.SituacaoReserva.RESERVADA);
+        }
+    }
+
+    /**
+     * Efetiva a saída do estoque; itens sem reserva saem direto do disponível
+     */
+    public void baixar(Collection<ItemPeca> itens) {
+        Set<Peca> baixadas = new LinkedHashSet<>();
+        for (ItemPeca item : porPeca(itens)) {
+            boolean baixado;
+            if (item.getSituacaoReserva() == ItemPeca.SituacaoReserva.RESERVADA) {
+                baixado = pecaRepository.baixarReserva(item.getPeca().getId(), item.getQuantidade());
+            } else if (item.getSituacaoReserva() == null) {
+                baixado = pecaRepository.removerEstoque(item.getPeca().getId(), item.getQuantidade());
+            } else {
+                continue;
+            }
+            if (!baixado) {
+                throw new RuntimeException("Estoque insuficiente para a peça: " + item.getPeca().getNome());
+            }
+            item.setSituacaoReserva(ItemPeca.SituacaoReserva.BAIXADA);
+            livroEstoqueService.registrar(item.getPeca().getId(), MovimentacaoEstoque.TipoMovimentacao.CONSUMO_OS,
+                    -item.getQuantidade(), item.getOrdemServico().getId());
+            baixadas.add(item.getPeca());
+        }
+
+        // A baixa foi feita por UPDATE direto: relê as peças para publicar o estoque gravado
+        for (Peca peca : baixadas) {
+            pecaRepository.getEntityManager().refresh(peca);
+            pecaAlterada.fire(new PecaAlteradaEvento(peca));
+        }
+    }
+
+    /**
+     * Devolve ao disponível as quantidades reservadas
+     */
+    public void liberar(Collection<ItemPeca> itens) {
+        for (ItemPeca item : porPeca(itens)) {
+            if (item.getSituacaoReserva() != ItemPeca.SituacaoReserva.RESERVADA) {
+                continue;
+            }
+            if (!pecaRepository.liberarReserva(item.getPeca().getId(), item.getQuantidade())) {
+                throw new RuntimeException("Reserva inconsistente para a peça: " + item.getPeca().getNome());
+            }
+            item.setSituacaoReserva(ItemPeca.SituacaoReserva.LIBERADA);
+        }
+    }
+
+    private static List<ItemPeca> porPeca(Collection<ItemPeca> itens) {
+        return itens.stream()
+                .sorted(Comparator.comparing(item -> item.getPeca().getId()))
+                .collect(Collectors.toList());
+    }
+}
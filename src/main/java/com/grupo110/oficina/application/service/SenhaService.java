@@ -0,0 +1,143 @@
+package com.grupo110.oficina.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.elytron.security.common.BcryptUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hash e verificação de senhas com bcrypt em um executor próprio e limitado, para que uma
+ * rajada de logins não ocupe as threads de requisição. Com a fila cheia a tarefa é
+ * recusada com RejectedExecutionException (a API responde 429).
+ * Senhas antigas gravadas em texto puro continuam aceitas até serem migradas (precisaMigrar).
+ */
+@ApplicationScoped
+public class SenhaService {
+
+    private static final String PREFIXO_BCRYPT = "$2";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "oficina.senha.bcrypt.custo", defaultValue = "10")
+    int custo;
+
+    @ConfigProperty(name = "oficina.senha.executor.threads", defaultValue = "4")
+    int threads;
+
+    @ConfigProperty(name = "oficina.senha.executor.fila", defaultValue = "64")
+    int tamanhoFila;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejeitadas;
+
+    /**
+     * Hash de uma senha aleatória com o custo configurado, verificado quando o usuário não existe
+     */
+    private String hashFicticio;
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        registry.gauge("oficina.senha.executor.fila", Tags.empty(), executor, e -> e.getQueue().size());
+        registry.gauge("oficina.senha.executor.ativas", Tags.empty(), executor, ThreadPoolExecutor::getActiveCount);
+        rejeitadas = registry.counter("oficina.senha.executor.rejeitadas");
+        hashFicticio = BcryptUtil.bcryptHash(UUID.randomUUID().toString(), custo);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Verifica a senha informada contra o valor gravado (hash bcrypt ou texto puro legado)
+     */
+    public CompletionStage<Boolean> verificar(String senha, String senhaGravada) {
+        return executar(() -> {
+            if (senha == null || senhaGravada == null) {
+                return false;
+            }
+            if (precisaMigrar(senhaGravada)) {
+                return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8),
+                        senhaGravada.getBytes(StandardCharsets.UTF_8));
+            }
+            return BcryptUtil.matches(senha, senhaGravada);
+        });
+    }
+
+    /**
+     * Verificação com o mesmo custo de uma senha real, para usuário inexistente ou inativo:
+     * o tempo de resposta do login não revela se o username existe. Sempre falsa.
+     */
+    public CompletionStage<Boolean> verificarSemUsuario(String senha) {
+        return executar(() -> {
+            BcryptUtil.matches(senha != null ? senha : "", hashFicticio);
+            return false;
+        });
+    }
+
+    /**
+     * Gera o hash bcrypt da senha no executor de senhas
+     */
+    public CompletionStage<String> gerarHash(String senha) {
+        return executar(() -> BcryptUtil.bcryptHash(senha, custo));
+    }
+
+    /**
+     * Gera o hash aguardando o resultado, para fluxos síncronos (cadastro, troca de senha)
+     */
+    public String gerarHashAguardando(String senha) {
+        try {
+            return gerarHash(senha).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw new RuntimeException("Servidor ocupado, tente novamente");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Senha gravada antes da adoção do bcrypt, ainda em texto puro
+     */
+    public boolean precisaMigrar(String senhaGravada) {
+        return senhaGravada != null && !senhaGravada.startsWith(PREFIXO_BCRYPT);
+    }
+
+    private <T> CompletionStage<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.grupo110.oficina.application.service;
 
 import com.grupo110.oficina.domain.model.Servico;
+import com.grupo110.oficina.infrastructure.repository.FiltroConsulta;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
 import com.grupo110.oficina.infrastructure.repository.ServicoRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -87,6 +92,13 @@ public class ServicoService {
                 .orElseThrow(() -> new RuntimeException("Serviço não encontrado com ID: " + id));
     }
     
+    /**
+     * Busca serviços por IDs em uma única consulta
+     */
+    public List<Servico> buscarPorIds(Collection<Long> ids) {
+        return servicoRepository.findByIds(ids);
+    }
+    
     /**
      * Busca serviço por nome
      */
@@ -102,6 +114,23 @@ public class ServicoService {
         return servicoRepository.listAll();
     }
     
+    /**
+     * Lista serviços com filtros opcionais, paginados e ordenados no banco de dados
+     */
+    public Pagina<Servico> listarPaginado(String nome, String categoria, BigDecimal valorMin, BigDecimal valorMax,
+                                          Integer tempoMin, Integer tempoMax, Boolean ativo, String ordenarPor,
+                                          int pagina, int tamanho) {
+        FiltroConsulta filtro = new FiltroConsulta()
+                .contemIgnoreCase("nome", nome)
+                .em("categoria", categoriasCorrespondentes(categoria))
+                .maiorOuIgual("valorBase", valorMin)
+                .menorOuIgual("valorBase", valorMax)
+                .maiorOuIgual("tempoMedioExecucao", tempoMin)
+                .menorOuIgual("tempoMedioExecucao", tempoMax)
+                .igual("ativo", ativo);
+        return servicoRepository.findPaginado(filtro, ordenacao(ordenarPor), pagina, tamanho);
+    }
+    
     /**
      * Lista serviços ativos
      */
@@ -259,10 +288,46 @@ public class ServicoService {
         return servicoRepository.countByCategoria(categoria);
     }
     
+    /**
+     * Conta todos os serviços
+     */
+    public long contarTodos() {
+        return servicoRepository.count();
+    }
+    
     /**
      * Conta serviços ativos
      */
     public long contarAtivos() {
         return servicoRepository.countByAtivoTrue();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Categorias cujo nome contém o texto informado (null quando não há filtro)
+     */
+    private List<Servico.CategoriaServico> categoriasCorrespondentes(String categoria) {
+        if (categoria == null || categoria.trim().isEmpty()) {
+            return null;
+        }
+        String termo = categoria.trim().toLowerCase();
+        return Arrays.stream(Servico.CategoriaServico.values())
+                .filter(c -> c.name().toLowerCase().contains(termo))
+                .toList();
+    }
+    
+    /**
+     * Traduz o parâmetro ordenarPor da API para ordenação no banco (padrão: id)
+     */
+    private Sort ordenacao(String ordenarPor) {
+        if (ordenarPor == null || ordenarPor.trim().isEmpty()) {
+            return Sort.by("id");
+        }
+        return switch (ordenarPor.toLowerCase()) {
+            case "nome" -> Sort.by("nome").and("id");
+            case "valor_asc" -> Sort.ascending("valorBase").and("id");
+            case "valor_desc" -> Sort.descending("valorBase").and("id");
+            case "categoria_nome" -> Sort.by("categoria").and("nome").and("id");
+            default -> Sort.by("id");
+        };
+    }
+}
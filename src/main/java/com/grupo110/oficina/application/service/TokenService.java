@@ -1,14 +1,69 @@
 package com.grupo110.oficina.application.service;
 
-import java.util.Arrays;
-import java.util.HashSet;
+import java.io.IOException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.util.Set;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
 import io.smallrye.jwt.build.Jwt;
+import io.smallrye.jwt.util.KeyUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
 public class TokenService {
 
+    @ConfigProperty(name = "smallrye.jwt.sign.key.location")
+    String localizacaoChave;
+
+    @ConfigProperty(name = "mp.jwt.verify.issuer")
+    String emissor;
+
+    /**
+     * RS256 (padrão) ou ES256/EdDSA, que assinam bem mais rápido; a chave em
+     * smallrye.jwt.sign.key.location e a pública de verificação devem ser do mesmo tipo
+     */
+    @ConfigProperty(name = "oficina.jwt.algoritmo", defaultValue = "RS256")
+    String algoritmo;
+
+    @ConfigProperty(name = "oficina.jwt.duracao-segundos", defaultValue = "3600")
+    long duracaoSegundos;
+
+    private SignatureAlgorithm algoritmoAssinatura;
+    private PrivateKey chavePrivada;
+
+    /**
+     * Lê e decodifica a chave privada uma única vez; PrivateKey é imutável e pode ser
+     * compartilhada entre threads. A localização aceita os mesmos formatos do smallrye-jwt
+     * (caminho no classpath, classpath:, file: ou URL) e a chave pode ser PEM ou JWK.
+     */
+    @PostConstruct
+    void carregarChave() {
+        try {
+            algoritmoAssinatura = SignatureAlgorithm.fromAlgorithm(algoritmo);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Algoritmo de assinatura JWT não suportado: " + algoritmo, e);
+        }
+        Key chave;
+        try {
+            chave = KeyUtils.readSigningKey(localizacaoChave, null, algoritmoAssinatura);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Não foi possível ler a chave de assinatura JWT em '" + localizacaoChave
+                    + "' (smallrye.jwt.sign.key.location): " + e.getMessage(), e);
+        }
+        if (chave == null) {
+            throw new IllegalStateException("Chave de assinatura JWT não encontrada em '" + localizacaoChave
+                    + "' (smallrye.jwt.sign.key.location)");
+        }
+        if (!(chave instanceof PrivateKey)) {
+            throw new IllegalStateException("A chave em '" + localizacaoChave + "' não é uma chave privada "
+                    + algoritmoAssinatura.getAlgorithm());
+        }
+        chavePrivada = (PrivateKey) chave;
+    }
+
     /**
      * Gera um token JWT para um usuário com suas respectivas permissões (roles).
      * @param username O nome do usuário (subject do token).
@@ -16,13 +71,12 @@ public class TokenService {
      * @return Uma string com o token JWT assinado.
      */
     public String generateToken(String username, String... roles) {
-        HashSet<String> rolesSet = new HashSet<>(Arrays.asList(roles));
-        long durationInSeconds = 3600; // O token expira em 1 hora
-
-        return Jwt.issuer("https://oficina.com") // O emissor do token
+        return Jwt.issuer(emissor) // O emissor do token
                 .subject(username) // O "dono" do token
-                .groups(rolesSet) // As permissões
-                .expiresIn(durationInSeconds)
-                .sign(); // Assina o token com a privateKey.pem configurada
+                .groups(Set.of(roles)) // As permissões
+                .expiresIn(duracaoSegundos)
+                .jws()
+                .algorithm(algoritmoAssinatura)
+                .sign(chavePrivada); // Assina com a chave já carregada
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.infrastructure.repository.UsuarioRepository;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro do último acesso dos usuários fora do caminho do login.
+ * Os acessos ficam em um buffer que guarda só o horário mais recente por usuário e é
+ * descarregado no banco em lote a cada poucos segundos e no desligamento da aplicação.
+ */
+@ApplicationScoped
+public class UltimoAcessoService {
+
+    @Inject
+    UsuarioRepository usuarioRepository;
+
+    private final Map<Long, LocalDateTime> pendentes = new ConcurrentHashMap<>();
+
+    /**
+     * Registra o acesso em memória; acessos repetidos do mesmo usuário se fundem
+     */
+    public void registrar(Long usuarioId, LocalDateTime momento) {
+        pendentes.merge(usuarioId, momento, (atual, novo) -> novo.isAfter(atual) ? novo : atual);
+    }
+
+    /**
+     * Grava os acessos pendentes em um único lote. Se a gravação falhar, os acessos
+     * voltam para o buffer e são tentados no próximo ciclo.
+     */
+    @Scheduled(every = "${oficina.usuarios.ultimo-acesso.intervalo:5s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void descarregar() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> lote = new HashMap<>();
+        for (Long usuarioId : pendentes.keySet()) {
+            LocalDateTime momento = pendentes.remove(usuarioId);
+            if (momento != null) {
+                lote.put(usuarioId, momento);
+            }
+        }
+        try {
+            usuarioRepository.atualizarUltimoAcessoEmLote(lote);
+        } catch (RuntimeException e) {
+            lote.forEach(this::registrar);
+            throw e;
+        }
+    }
+
+    void aoDesligar(@Observes ShutdownEvent evento) {
+        descarregar();
+    }
+}
@@ -1,8 +1,11 @@
 package com.grupo110.oficina.application.service;
 
+import com.grupo110.oficina.application.event.UsuarioAlteradoEvento;
+import com.grupo110.oficina.domain.model.Perfil;
 import com.grupo110.oficina.domain.model.Usuario;
 import com.grupo110.oficina.infrastructure.repository.UsuarioRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -18,6 +21,15 @@ public class UsuarioService {
     @Inject
     UsuarioRepository usuarioRepository;
     
+    @Inject
+    AutorizacaoService autorizacaoService;
+    
+    @Inject
+    SenhaService senhaService;
+    
+    @Inject
+    Event<UsuarioAlteradoEvento> usuarioAlterado;
+    
     /**
      * Cria um novo usuário
      */
@@ -43,6 +55,7 @@ public class UsuarioService {
         // Definir último acesso como data de cadastro
         usuario.setUltimoAcesso(LocalDateTime.now());
         
+        usuario.setSenha(senhaService.gerarHashAguardando(usuario.getSenha()));
         usuarioRepository.persist(usuario);
         return usuario;
     }
@@ -81,10 +94,11 @@ public class UsuarioService {
         
         // Atualizar senha apenas se foi fornecida
         if (usuarioAtualizado.getSenha() != null && !usuarioAtualizado.getSenha().trim().isEmpty()) {
-            usuario.setSenha(usuarioAtualizado.getSenha());
+            usuario.setSenha(senhaService.gerarHashAguardando(usuarioAtualizado.getSenha()));
         }
         
         usuarioRepository.persist(usuario);
+        publicarAlteracao(usuario);
         return usuario;
     }
     
@@ -196,6 +210,7 @@ public class UsuarioService {
         Usuario usuario = buscarPorId(id);
         usuario.setAtivo(false);
         usuarioRepository.persist(usuario);
+        publicarAlteracao(usuario);
         return usuario;
     }
     
@@ -206,6 +221,7 @@ public class UsuarioService {
         Usuario usuario = buscarPorId(id);
         usuario.setAtivo(true);
         usuarioRepository.persist(usuario);
+        publicarAlteracao(usuario);
         return usuario;
     }
     
@@ -216,6 +232,7 @@ public class UsuarioService {
         Usuario usuario = buscarPorId(id);
         usuario.setAtivo(false);
         usuarioRepository.persist(usuario);
+        publicarAlteracao(usuario);
         return usuario;
     }
     
@@ -238,7 +255,7 @@ public class UsuarioService {
         }
         
         Usuario usuario = buscarPorId(id);
-        usuario.setSenha(novaSenha);
+        usuario.setSenha(senhaService.gerarHashAguardando(novaSenha));
         usuarioRepository.persist(usuario);
         return usuario;
     }
@@ -246,20 +263,22 @@ public class UsuarioService {
     /**
      * Adiciona perfil ao usuário
      */
-    public Usuario adicionarPerfil(Long id, com.grupo110.oficina.domain.model.Perfil perfil) {
+    public Usuario adicionarPerfil(Long id, Perfil perfil) {
         Usuario usuario = buscarPorId(id);
         usuario.setPerfil(perfil);
         usuarioRepository.persist(usuario);
+        publicarAlteracao(usuario);
         return usuario;
     }
     
     /**
      * Remove perfil do usuário
      */
-    public Usuario removerPerfil(Long id, com.grupo110.oficina.domain.model.Perfil perfil) {
+    public Usuario removerPerfil(Long id, Perfil perfil) {
         Usuario usuario = buscarPorId(id);
         usuario.setPerfil(null);
         usuarioRepository.persist(usuario);
+        publicarAlteracao(usuario);
         return usuario;
     }
     
@@ -307,29 +326,22 @@ public class UsuarioService {
     }
     
     /**
-     * Autentica usuário por username e senha
+     * Busca o usuário ativo para autenticação; vazio se não existir ou estiver inativo.
+     * A senha é verificada pelo AutenticacaoService fora da transação, no executor de senhas
      */
-    public Usuario autenticar(String username, String password) {
-        try {
-            Usuario usuario = buscarPorUsername(username);
-            
-            // Verificar se usuário está ativo
-            if (!usuario.getAtivo()) {
-                throw new RuntimeException("Usuário inativo");
-            }
-            
-            // Verificar senha (implementação básica - em produção usar hash)
-            if (!usuario.getSenha().equals(password)) {
-                throw new RuntimeException("Senha incorreta");
-            }
-            
-            // Atualizar último acesso
-            usuario.setUltimoAcesso(LocalDateTime.now());
+    public Optional<Usuario> buscarParaAutenticacao(String username) {
+        return usuarioRepository.findByUsername(username)
+                .filter(usuario -> Boolean.TRUE.equals(usuario.getAtivo()));
+    }
+    
+    /**
+     * Substitui a senha em texto puro pelo hash, se ainda não tiver sido migrada
+     */
+    public void migrarSenha(Long id, String hash) {
+        Usuario usuario = buscarPorId(id);
+        if (senhaService.precisaMigrar(usuario.getSenha())) {
+            usuario.setSenha(hash);
             usuarioRepository.persist(usuario);
-            return usuario;
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Falha na autenticação: " + e.getMessage());
         }
     }
     
@@ -337,15 +349,32 @@ public class UsuarioService {
      * Verifica se usuário tem perfil específico
      */
     public boolean usuarioTemPerfil(Long id, String nomePerfil) {
-        Usuario usuario = buscarPorId(id);
-        return usuario.getPerfil().getNome().equals(nomePerfil);
+        return autorizacaoService.obter(id).temPerfil(nomePerfil);
     }
     
     /**
      * Verifica se usuário tem tipo de perfil específico
      */
     public boolean usuarioTemTipoPerfil(Long id, String tipoPerfil) {
-        Usuario usuario = buscarPorId(id);
-        return usuario.getPerfil().getTipo().toString().equals(tipoPerfil);
+        for (Perfil.TipoPerfil tipo : Perfil.TipoPerfil.values()) {
+            if (tipo.name().equals(tipoPerfil)) {
+                return autorizacaoService.obter(id).temTipoPerfil(tipo);
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Verifica se o perfil do usuário concede a permissão informada
+     */
+    public boolean usuarioTemPermissao(Long id, Long permissaoId) {
+        return autorizacaoService.obter(id).temPermissao(permissaoId);
+    }
+    
+    /**
+     * Invalida o cache de autorização do usuário quando a transação terminar
+     */
+    private void publicarAlteracao(Usuario usuario) {
+        usuarioAlterado.fire(new UsuarioAlteradoEvento(usuario.getId(), Boolean.TRUE.equals(usuario.getAtivo())));
     }
-} 
\ No newline at end of file
+}
@@ -1,7 +1,10 @@
 package com.grupo110.oficina.application.service;
 
 import com.grupo110.oficina.domain.model.Veiculo;
+import com.grupo110.oficina.infrastructure.repository.FiltroConsulta;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
 import com.grupo110.oficina.infrastructure.repository.VeiculoRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -102,6 +105,20 @@ public class VeiculoService {
         return veiculoRepository.listAll();
     }
     
+    /**
+     * Lista veículos com filtros opcionais, paginados no banco de dados
+     */
+    public Pagina<Veiculo> listarPaginado(String placa, String marca, String modelo, Long clienteId,
+                                          Boolean ativo, int pagina, int tamanho) {
+        FiltroConsulta filtro = new FiltroConsulta()
+                .contemIgnoreCase("placa", placa)
+                .contemIgnoreCase("marca", marca)
+                .contemIgnoreCase("modelo", modelo)
+                .igual("cliente.id", clienteId)
+                .igual("ativo", ativo);
+        return veiculoRepository.findPaginado(filtro, Sort.by("id"), pagina, tamanho);
+    }
+    
     /**
      * Lista veículos ativos
      */
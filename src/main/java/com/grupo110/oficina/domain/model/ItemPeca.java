@@ -36,6 +36,16 @@ public class ItemPeca  {
     @Column(name = "observacoes", columnDefinition = "TEXT")
     private String observacoes;
     
+    @Column(name = "situacao_reserva")
+    @Enumerated(EnumType.STRING)
+    private SituacaoReserva situacaoReserva;
+    
+    public enum SituacaoReserva {
+        RESERVADA,  // quantidade separada no estoque da peça
+        BAIXADA,    // ordem finalizada: saiu do estoque
+        LIBERADA    // ordem cancelada: voltou a ficar disponível
+    }
+    
     // Construtores
     public ItemPeca() {}
     
@@ -96,6 +106,14 @@ public class ItemPeca  {
         this.observacoes = observacoes;
     }
     
+    public SituacaoReserva getSituacaoReserva() {
+        return situacaoReserva;
+    }
+    
+    public void setSituacaoReserva(SituacaoReserva situacaoReserva) {
+        this.situacaoReserva = situacaoReserva;
+    }
+    
     // Métodos de negócio
     public BigDecimal getValorTotal() {
         return valorUnitario.multiply(BigDecimal.valueOf(quantidade));
@@ -0,0 +1,91 @@
+package com.grupo110.oficina.domain.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lançamento do livro de estoque. Os lançamentos só são inseridos, nunca alterados: o saldo de
+ * uma peça em qualquer momento é o último saldo consolidado (SaldoEstoque) mais os lançamentos
+ * posteriores a ele.
+ */
+@Entity
+@Table(name = "movimentacoes_estoque")
+@Immutable
+public class MovimentacaoEstoque {
+
+    @Id private Long id;
+    
+    @Column(name = "peca_id", nullable = false)
+    private Long pecaId;
+    
+    @Column(name = "tipo", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TipoMovimentacao tipo;
+    
+    // Positiva para entradas e negativa para saídas
+    @Column(name = "quantidade", nullable = false)
+    private Integer quantidade;
+    
+    @Column(name = "ordem_servico_id")
+    private Long ordemServicoId;
+    
+    @Column(name = "data_movimentacao", nullable = false)
+    private LocalDateTime dataMovimentacao;
+    
+    public enum TipoMovimentacao {
+        ENTRADA("Entrada"),
+        SAIDA("Saída"),
+        AJUSTE("Ajuste de inventário"),
+        CONSUMO_OS("Consumo em ordem de serviço");
+        
+        private final String descricao;
+        
+        TipoMovimentacao(String descricao) {
+            this.descricao = descricao;
+        }
+        
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+    
+    // Construtores
+    protected MovimentacaoEstoque() {}
+    
+    public MovimentacaoEstoque(Long id, Long pecaId, TipoMovimentacao tipo, Integer quantidade, Long ordemServicoId) {
+        this.id = id;
+        this.pecaId = pecaId;
+        this.tipo = tipo;
+        this.quantidade = quantidade;
+        this.ordemServicoId = ordemServicoId;
+        this.dataMovimentacao = LocalDateTime.now();
+    }
+    
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getPecaId() {
+        return pecaId;
+    }
+    
+    public TipoMovimentacao getTipo() {
+        return tipo;
+    }
+    
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+    
+    public Long getOrdemServicoId() {
+        return ordemServicoId;
+    }
+    
+    public LocalDateTime getDataMovimentacao() {
+        return dataMovimentacao;
+    }
+}
@@ -13,7 +13,17 @@ import java.util.List;
 
 @Entity
 @Table(name = "ordens_servico")
+@NamedEntityGraph(name = OrdemServico.GRAFO_RESUMO, attributeNodes = {
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("veiculo")
+})
 public class OrdemServico  {
+    
+    /**
+     * Grafo usado nas listagens: carrega cliente e veículo na mesma consulta, sem itens e histórico
+     */
+    public static final String GRAFO_RESUMO = "OrdemServico.resumo";
+    
     @Id private Long id;
     
     @Column(name = "numero_os", nullable = false, unique = true)
@@ -89,7 +99,8 @@ public class OrdemServico  {
         AGUARDANDO_APROVACAO("Aguardando Aprovação"),
         EM_EXECUCAO("Em Execução"),
         FINALIZADA("Finalizada"),
-        ENTREGUE("Entregue");
+        ENTREGUE("Entregue"),
+        CANCELADA("Cancelada");
         
         private final String descricao;
         
@@ -100,6 +111,13 @@ public class OrdemServico  {
         public String getDescricao() {
             return descricao;
         }
+        
+        /**
+         * Ordem concluída ou cancelada: não conta mais como atrasada
+         */
+        public boolean isEncerrado() {
+            return this == FINALIZADA || this == ENTREGUE || this == CANCELADA;
+        }
     }
     
     // Construtores
@@ -107,7 +125,6 @@ public class OrdemServico  {
         this.dataCadastro = LocalDateTime.now();
         this.dataRecebimento = LocalDateTime.now();
         this.status = StatusOrdemServico.RECEBIDA;
-        this.numeroOS = gerarNumeroOS();
     }
     
     public OrdemServico(Cliente cliente, Veiculo veiculo, String descricaoProblema) {
@@ -289,28 +306,32 @@ public class OrdemServico  {
     }
     
     // Métodos de negócio
+    // Os totais são mantidos por diferença a cada alteração de item, sem percorrer (nem carregar)
+    // as coleções; calcularValores() refaz a soma completa quando necessário.
     public void adicionarItemServico(ItemServico itemServico) {
         itemServico.setOrdemServico(this);
         this.itensServico.add(itemServico);
-        calcularValores();
+        somarMaoObra(itemServico.getValorTotal());
     }
     
     public void removerItemServico(ItemServico itemServico) {
-        this.itensServico.remove(itemServico);
+        if (this.itensServico.remove(itemServico)) {
+            somarMaoObra(itemServico.getValorTotal().negate());
+        }
         itemServico.setOrdemServico(null);
-        calcularValores();
     }
     
     public void adicionarItemPeca(ItemPeca itemPeca) {
         itemPeca.setOrdemServico(this);
         this.itensPeca.add(itemPeca);
-        calcularValores();
+        somarPecas(itemPeca.getValorTotal());
     }
     
     public void removerItemPeca(ItemPeca itemPeca) {
-        this.itensPeca.remove(itemPeca);
+        if (this.itensPeca.remove(itemPeca)) {
+            somarPecas(itemPeca.getValorTotal().negate());
+        }
         itemPeca.setOrdemServico(null);
-        calcularValores();
     }
     
     public void adicionarHistoricoStatus(StatusOrdemServico novoStatus) {
@@ -336,6 +357,20 @@ public class OrdemServico  {
         this.valorTotal = this.valorPecas.add(this.valorMaoObra);
     }
     
+    private void somarPecas(BigDecimal diferenca) {
+        this.valorPecas = valorOuZero(this.valorPecas).add(diferenca);
+        this.valorTotal = this.valorPecas.add(valorOuZero(this.valorMaoObra));
+    }
+    
+    private void somarMaoObra(BigDecimal diferenca) {
+        this.valorMaoObra = valorOuZero(this.valorMaoObra).add(diferenca);
+        this.valorTotal = valorOuZero(this.valorPecas).add(this.valorMaoObra);
+    }
+    
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+    
     public void iniciarDiagnostico() {
         this.status = StatusOrdemServico.EM_DIAGNOSTICO;
     }
@@ -359,8 +394,8 @@ public class OrdemServico  {
         this.dataEntrega = LocalDateTime.now();
     }
     
-    private String gerarNumeroOS() {
-        return "OS" + System.currentTimeMillis();
+    public void cancelar() {
+        this.status = StatusOrdemServico.CANCELADA;
     }
     
     @PreUpdate
@@ -61,6 +61,14 @@ public class Peca  {
     @Column(name = "quantidade_minima")
     private Integer quantidadeMinima;
     
+    // Alterada só pelas atualizações condicionais do PecaRepository (reserva, baixa e liberação)
+    @Column(name = "quantidade_reservada", nullable = false)
+    private Integer quantidadeReservada = 0;
+    
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+    
     @Column(name = "unidade_medida")
     private String unidadeMedida;
     
@@ -218,6 +226,14 @@ public class Peca  {
         this.quantidadeEstoque = quantidadeEstoque;
     }
     
+    public Integer getQuantidadeReservada() {
+        return quantidadeReservada;
+    }
+    
+    public Long getVersao() {
+        return versao;
+    }
+    
     public Integer getQuantidadeMinima() {
         return quantidadeMinima;
     }
@@ -308,7 +324,14 @@ public class Peca  {
     }
     
     public boolean temEstoqueSuficiente(Integer quantidade) {
-        return this.quantidadeEstoque >= quantidade;
+        return getQuantidadeDisponivel() >= quantidade;
+    }
+    
+    /**
+     * Estoque que ainda não está reservado para ordens em execução
+     */
+    public int getQuantidadeDisponivel() {
+        return this.quantidadeEstoque - (this.quantidadeReservada != null ? this.quantidadeReservada : 0);
     }
     
     public boolean estoqueBaixo() {
@@ -34,7 +34,8 @@ public class Perfil  {
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    // LAZY: as checagens de permissão usam o AutorizacaoUsuario em cache, não este grafo
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "perfil_permissoes",
         joinColumns = @JoinColumn(name = "perfil_id"),
@@ -140,6 +141,7 @@ public class Perfil  {
     
     public void setPermissoes(Set<Permissao> permissoes) {
         this.permissoes = permissoes;
+        this.dataAtualizacao = LocalDateTime.now();
     }
     
     public Set<Usuario> getUsuarios() {
@@ -151,12 +153,16 @@ public class Perfil  {
     }
     
     // Métodos de negócio
+    // Mudanças só na coleção não geram UPDATE do perfil; a data marca o perfil como alterado
+    // para que o listener de permissões seja acionado
     public void adicionarPermissao(Permissao permissao) {
         this.permissoes.add(permissao);
+        this.dataAtualizacao = LocalDateTime.now();
     }
     
     public void removerPermissao(Permissao permissao) {
         this.permissoes.remove(permissao);
+        this.dataAtualizacao = LocalDateTime.now();
     }
     
     public boolean temPermissao(String nomePermissao) {
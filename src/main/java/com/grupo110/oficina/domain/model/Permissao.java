@@ -171,12 +171,12 @@ public class Permissao {
     // Métodos de negócio
     public void adicionarPerfil(Perfil perfil) {
         this.perfis.add(perfil);
-        perfil.getPermissoes().add(this);
+        perfil.adicionarPermissao(this);
     }
     
     public void removerPerfil(Perfil perfil) {
         this.perfis.remove(perfil);
-        perfil.getPermissoes().remove(this);
+        perfil.removerPermissao(this);
     }
     
     public String getPermissaoCompleta() {
@@ -0,0 +1,115 @@
+package com.grupo110.oficina.domain.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Refresh token emitido no login, identificado pelo hash do valor entregue ao cliente.
+ * Todos os tokens derivados do mesmo login por rotação formam uma família.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "familia", length = 64, nullable = false)
+    private String familia;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "username", length = 100, nullable = false)
+    private String username;
+
+    /**
+     * Papéis do access token, separados por vírgula
+     */
+    @Column(name = "roles", nullable = false)
+    private String roles;
+
+    @Column(name = "expira_em", nullable = false)
+    private Instant expiraEm;
+
+    @Column(name = "rotacionado", nullable = false)
+    private boolean rotacionado;
+
+    /**
+     * Token que substitui este na rotação: mesma família, usuário, papéis e expiração
+     */
+    public RefreshToken rotacionar(String novoTokenHash) {
+        RefreshToken novo = new RefreshToken();
+        novo.tokenHash = novoTokenHash;
+        novo.familia = familia;
+        novo.usuarioId = usuarioId;
+        novo.username = username;
+        novo.roles = roles;
+        novo.expiraEm = expiraEm;
+        return novo;
+    }
+
+    public boolean expirado(Instant agora) {
+        return !agora.isBefore(expiraEm);
+    }
+
+    // Getters e Setters
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamilia() {
+        return familia;
+    }
+
+    public void setFamilia(String familia) {
+        this.familia = familia;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getRoles() {
+        return roles;
+    }
+
+    public void setRoles(String roles) {
+        this.roles = roles;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
+    public boolean isRotacionado() {
+        return rotacionado;
+    }
+
+    public void setRotacionado(boolean rotacionado) {
+        this.rotacionado = rotacionado;
+    }
+}
@@ -0,0 +1,45 @@
+package com.grupo110.oficina.domain.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saldo consolidado de uma peça: soma de todos os lançamentos anteriores à data de corte.
+ * Gerado periodicamente pelo LivroEstoqueService, somente para as peças movimentadas.
+ */
+@Entity
+@Table(name = "saldos_estoque")
+@Immutable
+public class SaldoEstoque {
+
+    @Id private Long id;
+    
+    @Column(name = "peca_id", nullable = false)
+    private Long pecaId;
+    
+    @Column(name = "data_corte", nullable = false)
+    private LocalDateTime dataCorte;
+    
+    @Column(name = "quantidade", nullable = false)
+    private Integer quantidade;
+    
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getPecaId() {
+        return pecaId;
+    }
+    
+    public LocalDateTime getDataCorte() {
+        return dataCorte;
+    }
+    
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+}
@@ -0,0 +1,42 @@
+package com.grupo110.oficina.domain.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Contador nomeado persistido no banco; a aplicação reserva faixas de valores de uma vez
+ */
+@Entity
+@Table(name = "sequencias")
+public class Sequencia {
+
+    public static final String NUMERO_OS = "numero_os";
+    public static final String MOVIMENTACAO_ESTOQUE = "movimentacao_estoque";
+    public static final String CONSOLIDACAO_ESTOQUE = "consolidacao_estoque";
+    public static final String ITEM_SERVICO = "item_servico";
+    public static final String ITEM_PECA = "item_peca";
+
+    @Id
+    @Column(name = "nome", length = 50)
+    private String nome;
+
+    @Column(name = "proximo_valor", nullable = false)
+    private Long proximoValor;
+
+    // Getters e Setters
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Long getProximoValor() {
+        return proximoValor;
+    }
+
+    public void setProximoValor(Long proximoValor) {
+        this.proximoValor = proximoValor;
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "servicos")
+@Cacheable
 public class Servico  {
 
     @Id private Long id;
@@ -2,6 +2,7 @@ package com.grupo110.oficina.infrastructure.repository;
 
 import com.grupo110.oficina.domain.model.Cliente;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.util.List;
@@ -72,4 +73,11 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
     public Optional<Cliente> findByEmailAndIdNot(String email, Long id) {
         return find("email = ?1 and id != ?2", email, id).firstResultOptional();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Busca paginada com filtros aplicados no banco de dados (total via count)
+     */
+    public Pagina<Cliente> findPaginado(FiltroConsulta filtro, Sort sort, int pagina, int tamanho) {
+        return Pagina.de(find(filtro.getQuery(), sort, filtro.getParametros()), pagina, tamanho);
+    }
+}
@@ -0,0 +1,70 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import com.grupo110.oficina.domain.model.OrdemServico;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de paginação por cursor sobre (dataRecebimento, id) das ordens de serviço.
+ * O token é opaco para o cliente: Base64 URL-safe de "dataRecebimento|id".
+ */
+public class CursorOrdemServico {
+
+    private static final String SEPARADOR = "|";
+
+    private final LocalDateTime dataRecebimento;
+    private final Long id;
+
+    public CursorOrdemServico(LocalDateTime dataRecebimento, Long id) {
+        this.dataRecebimento = dataRecebimento;
+        this.id = id;
+    }
+
+    /**
+     * Cria o cursor que aponta para a ordem informada (última da página atual)
+     */
+    public static CursorOrdemServico de(OrdemServico ordemServico) {
+        return new CursorOrdemServico(ordemServico.getDataRecebimento(), ordemServico.getId());
+    }
+
+    /**
+     * Decodifica o token recebido do cliente; retorna null para token vazio e lança
+     * IllegalArgumentException para token inválido
+     */
+    public static CursorOrdemServico decodificar(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Cursor de paginação inválido");
+            }
+            return new CursorOrdemServico(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido", e);
+        }
+    }
+
+    /**
+     * Codifica o cursor como token opaco
+     */
+    public String codificar() {
+        String valor = dataRecebimento + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getDataRecebimento() {
+        return dataRecebimento;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
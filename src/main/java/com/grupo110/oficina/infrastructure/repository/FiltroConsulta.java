@@ -0,0 +1,120 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta predicados HQL a partir de filtros opcionais vindos da API.
+ * Filtros nulos ou vazios são ignorados; cada valor vira um parâmetro nomeado,
+ * de modo que a filtragem e a contagem acontecem no banco de dados.
+ */
+public class FiltroConsulta {
+
+    private static final char ESCAPE_LIKE = '!';
+
+    private final List<String> condicoes = new ArrayList<>();
+    private final Map<String, Object> parametros = new HashMap<>();
+
+    /**
+     * campo = valor
+     */
+    public FiltroConsulta igual(String campo, Object valor) {
+        if (valor != null) {
+            condicoes.add(campo + " = :" + novoParametro(valor));
+        }
+        return this;
+    }
+
+    /**
+     * campo contém valor (sensível a maiúsculas/minúsculas)
+     */
+    public FiltroConsulta contem(String campo, String valor) {
+        if (naoVazio(valor)) {
+            condicoes.add(campo + " like :" + novoParametro("%" + escaparLike(valor.trim()) + "%")
+                    + " escape '" + ESCAPE_LIKE + "'");
+        }
+        return this;
+    }
+
+    /**
+     * campo contém valor ignorando maiúsculas/minúsculas
+     */
+    public FiltroConsulta contemIgnoreCase(String campo, String valor) {
+        if (naoVazio(valor)) {
+            condicoes.add("lower(" + campo + ") like :"
+                    + novoParametro("%" + escaparLike(valor.trim().toLowerCase()) + "%")
+                    + " escape '" + ESCAPE_LIKE + "'");
+        }
+        return this;
+    }
+
+    /**
+     * campo >= valor
+     */
+    public FiltroConsulta maiorOuIgual(String campo, Object valor) {
+        if (valor != null) {
+            condicoes.add(campo + " >= :" + novoParametro(valor));
+        }
+        return this;
+    }
+
+    /**
+     * campo <= valor
+     */
+    public FiltroConsulta menorOuIgual(String campo, Object valor) {
+        if (valor != null) {
+            condicoes.add(campo + " <= :" + novoParametro(valor));
+        }
+        return this;
+    }
+
+    /**
+     * campo in (valores); uma coleção vazia não encontra nenhum registro
+     */
+    public FiltroConsulta em(String campo, Collection<?> valores) {
+        if (valores == null) {
+            return this;
+        }
+        if (valores.isEmpty()) {
+            condicoes.add("1 = 0");
+        } else {
+            condicoes.add(campo + " in :" + novoParametro(valores));
+        }
+        return this;
+    }
+
+    /**
+     * Cláusula where (sem a palavra-chave) no formato aceito pelo Panache; vazia quando não há filtros
+     */
+    public String getQuery() {
+        return String.join(" and ", condicoes);
+    }
+
+    public Map<String, Object> getParametros() {
+        return parametros;
+    }
+
+    private String novoParametro(Object valor) {
+        String nome = "p" + parametros.size();
+        parametros.put(nome, valor);
+        return nome;
+    }
+
+    private static boolean naoVazio(String valor) {
+        return valor != null && !valor.trim().isEmpty();
+    }
+
+    private static String escaparLike(String valor) {
+        StringBuilder escapado = new StringBuilder(valor.length());
+        for (char c : valor.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE_LIKE) {
+                escapado.append(ESCAPE_LIKE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+}
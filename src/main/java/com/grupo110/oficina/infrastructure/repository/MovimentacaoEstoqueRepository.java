@@ -0,0 +1,38 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import com.grupo110.oficina.domain.model.MovimentacaoEstoque;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ApplicationScoped
+public class MovimentacaoEstoqueRepository implements PanacheRepository<MovimentacaoEstoque> {
+
+    /**
+     * Soma dos lançamentos da peça em [inicio, fim); inicio nulo considera desde o primeiro lançamento
+     */
+    public long somarQuantidade(Long pecaId, LocalDateTime inicio, LocalDateTime fim) {
+        TypedQuery<Long> query = getEntityManager()
+                .createQuery("select coalesce(sum(m.quantidade), 0) from MovimentacaoEstoque m "
+                        + "where m.pecaId = :pecaId and m.dataMovimentacao < :fim"
+                        + (inicio != null ? " and m.dataMovimentacao >= :inicio" : ""), Long.class)
+                .setParameter("pecaId", pecaId)
+                .setParameter("fim", fim);
+        if (inicio != null) {
+            query.setParameter("inicio", inicio);
+        }
+        return query.getSingleResult();
+    }
+
+    /**
+     * Lançamentos da peça em [inicio, fim), do mais antigo para o mais recente
+     */
+    public List<MovimentacaoEstoque> findByPecaIdEntre(Long pecaId, LocalDateTime inicio, LocalDateTime fim) {
+        return find("pecaId = ?1 and dataMovimentacao >= ?2 and dataMovimentacao < ?3",
+                Sort.by("dataMovimentacao").and("id"), pecaId, inicio, fim).list();
+    }
+}
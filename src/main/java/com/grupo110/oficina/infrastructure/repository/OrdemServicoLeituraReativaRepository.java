@@ -0,0 +1,64 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Leitura não bloqueante das ordens de serviço pelo cliente reativo do MySQL.
+ * Roda ao lado do OrdemServicoRepository (as escritas continuam no Hibernate ORM) e devolve
+ * só as colunas do resumo, com nome do cliente e placa/modelo do veículo, sem montar entidades.
+ * Só existe quando oficina.os.leitura-reativa.habilitada=true no build.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "oficina.os.leitura-reativa.habilitada", stringValue = "true")
+public class OrdemServicoLeituraReativaRepository {
+
+    private static final String SELECT_RESUMO = "select o.id, o.numero_os, o.status, o.descricao_problema, "
+            + "o.diagnostico, o.observacoes, o.valor_total, o.valor_mao_obra, o.valor_pecas, "
+            + "o.prazo_entrega, o.data_recebimento, o.data_inicio_execucao, o.data_finalizacao, "
+            + "o.data_entrega, o.data_cadastro, o.data_atualizacao, "
+            + "c.id as cliente_id, c.nome as cliente_nome, "
+            + "v.id as veiculo_id, v.placa as veiculo_placa, v.modelo as veiculo_modelo "
+            + "from ordens_servico o "
+            + "join clientes c on c.id = o.cliente_id "
+            + "join veiculos v on v.id = o.veiculo_id ";
+
+    @Inject
+    Pool client;
+
+    /**
+     * Busca a linha de resumo da ordem de serviço; item nulo quando não existe
+     */
+    public Uni<Row> findResumoById(Long id) {
+        return client.preparedQuery(SELECT_RESUMO + "where o.id = ?")
+                .execute(Tuple.of(id))
+                .map(linhas -> linhas.size() == 0 ? null : linhas.iterator().next());
+    }
+
+    /**
+     * Linhas de resumo das ordens de serviço do cliente, mais recentes primeiro
+     */
+    public Multi<Row> streamResumoByClienteId(Long clienteId) {
+        return listar(SELECT_RESUMO + "where o.cliente_id = ? order by o.data_recebimento desc", clienteId);
+    }
+
+    /**
+     * Linhas de resumo das ordens de serviço do veículo, mais recentes primeiro
+     */
+    public Multi<Row> streamResumoByVeiculoId(Long veiculoId) {
+        return listar(SELECT_RESUMO + "where o.veiculo_id = ? order by o.data_recebimento desc", veiculoId);
+    }
+
+    private Multi<Row> listar(String sql, Long parametro) {
+        return client.preparedQuery(sql)
+                .execute(Tuple.of(parametro))
+                .onItem().transformToMulti(RowSet::toMulti);
+    }
+}
@@ -1,16 +1,33 @@
 package com.grupo110.oficina.infrastructure.repository;
 
 import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.domain.model.Servico;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
     
+    private static final List<OrdemServico.StatusOrdemServico> STATUS_ENCERRADOS = List.of(
+            OrdemServico.StatusOrdemServico.FINALIZADA, OrdemServico.StatusOrdemServico.ENTREGUE,
+            OrdemServico.StatusOrdemServico.CANCELADA);
+    
     /**
      * Busca ordem de serviço por número
      */
@@ -18,18 +35,40 @@ public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
         return find("numeroOS", numeroOS).firstResultOptional();
     }
     
+    /**
+     * Busca ordem de serviço com cliente, veículo, itens e histórico já carregados.
+     * Cada coleção vem de uma consulta com join fetch própria (buscar duas bags na mesma
+     * consulta gera produto cartesiano), então são sempre três consultas, independente
+     * da quantidade de itens.
+     */
+    public Optional<OrdemServico> findDetalheById(Long id) {
+        Optional<OrdemServico> ordem = find("select o from OrdemServico o "
+                + "join fetch o.cliente join fetch o.veiculo "
+                + "left join fetch o.itensServico i left join fetch i.servico "
+                + "where o.id = ?1", id).singleResultOptional();
+        
+        if (ordem.isPresent()) {
+            // As consultas abaixo inicializam as coleções da mesma instância no contexto de persistência
+            find("select o from OrdemServico o left join fetch o.itensPeca i left join fetch i.peca "
+                    + "where o.id = ?1", id).singleResult();
+            find("select o from OrdemServico o left join fetch o.historicoStatus "
+                    + "where o.id = ?1", id).singleResult();
+        }
+        return ordem;
+    }
+    
     /**
      * Busca ordens de serviço por cliente
      */
     public List<OrdemServico> findByClienteId(Long clienteId) {
-        return find("cliente.id", clienteId).list();
+        return comGrafoResumo(find("cliente.id", clienteId)).list();
     }
     
     /**
      * Busca ordens de serviço por veículo
      */
     public List<OrdemServico> findByVeiculoId(Long veiculoId) {
-        return find("veiculo.id", veiculoId).list();
+        return comGrafoResumo(find("veiculo.id", veiculoId)).list();
     }
     
     /**
@@ -60,6 +99,22 @@ public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
         return find("dataRecebimento between ?1 and ?2", dataInicio, dataFim).list();
     }
     
+    /**
+     * Percorre as ordens do período de recebimento sem materializar a lista, para exportação.
+     * Cliente e veículo vêm no mesmo SELECT; as entidades são somente leitura e o driver
+     * busca as linhas em lotes de tamanhoLote (requer useCursorFetch=true no MySQL).
+     * O Stream deve ser fechado e consumido dentro de uma transação.
+     */
+    public Stream<OrdemServico> streamByDataRecebimentoBetween(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                                int tamanhoLote) {
+        return find("select o from OrdemServico o join fetch o.cliente join fetch o.veiculo "
+                + "where o.dataRecebimento between ?1 and ?2 "
+                + "order by o.dataRecebimento, o.id", dataInicio, dataFim)
+                .withHint(HibernateHints.HINT_FETCH_SIZE, tamanhoLote)
+                .withHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
+    }
+    
     /**
      * Busca ordens de serviço por período de data de finalização
      */
@@ -82,11 +137,35 @@ public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
     }
     
     /**
-     * Busca ordens de serviço atrasadas (data atual > prazo entrega)
+     * Busca ordens de serviço atrasadas (data atual > prazo entrega, serviço não encerrado)
      */
     public List<OrdemServico> findOrdensAtrasadas() {
         LocalDateTime agora = LocalDateTime.now();
-        return find("prazoEntrega < ?1 and status != ?2", agora, OrdemServico.StatusOrdemServico.FINALIZADA).list();
+        return find("prazoEntrega < ?1 and status not in ?2", agora, STATUS_ENCERRADOS).list();
+    }
+    
+    /**
+     * Prazos de entrega das ordens ainda não encerradas (id, prazoEntrega), para montar a fila de atrasadas
+     */
+    public Map<Long, LocalDateTime> findPrazosEmAberto() {
+        Map<Long, LocalDateTime> prazos = new HashMap<>();
+        getEntityManager()
+                .createQuery("select o.id, o.prazoEntrega from OrdemServico o "
+                        + "where o.prazoEntrega is not null and o.status not in :encerrados", Object[].class)
+                .setParameter("encerrados", STATUS_ENCERRADOS)
+                .getResultList()
+                .forEach(linha -> prazos.put((Long) linha[0], (LocalDateTime) linha[1]));
+        return prazos;
+    }
+    
+    /**
+     * Resumo das ordens com os IDs informados (cliente e veículo no mesmo SELECT)
+     */
+    public List<OrdemServico> findResumoByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return comGrafoResumo(find("id in ?1", ids)).list();
     }
     
     /**
@@ -97,6 +176,36 @@ public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
         return find("status = ?1 and dataInicioExecucao < ?2", OrdemServico.StatusOrdemServico.EM_EXECUCAO, dataLimite).list();
     }
     
+    /**
+     * Início de execução das ordens em EM_EXECUCAO (id, dataInicioExecucao), pelo índice (status, data_inicio_execucao)
+     */
+    public Map<Long, LocalDateTime> findIniciosEmExecucao() {
+        Map<Long, LocalDateTime> inicios = new HashMap<>();
+        getEntityManager()
+                .createQuery("select o.id, o.dataInicioExecucao from OrdemServico o "
+                        + "where o.status = :status and o.dataInicioExecucao is not null", Object[].class)
+                .setParameter("status", OrdemServico.StatusOrdemServico.EM_EXECUCAO)
+                .getResultList()
+                .forEach(linha -> inicios.put((Long) linha[0], (LocalDateTime) linha[1]));
+        return inicios;
+    }
+    
+    /**
+     * Categorias dos serviços de cada ordem em EM_EXECUCAO
+     */
+    public Map<Long, Set<Servico.CategoriaServico>> findCategoriasEmExecucao() {
+        Map<Long, Set<Servico.CategoriaServico>> categorias = new HashMap<>();
+        getEntityManager()
+                .createQuery("select distinct i.ordemServico.id, s.categoria from ItemServico i join i.servico s "
+                        + "where i.ordemServico.status = :status and s.categoria is not null", Object[].class)
+                .setParameter("status", OrdemServico.StatusOrdemServico.EM_EXECUCAO)
+                .getResultList()
+                .forEach(linha -> categorias
+                        .computeIfAbsent((Long) linha[0], id -> EnumSet.noneOf(Servico.CategoriaServico.class))
+                        .add((Servico.CategoriaServico) linha[1]));
+        return categorias;
+    }
+    
     /**
      * Verifica se existe ordem de serviço com o número informado
      */
@@ -118,6 +227,18 @@ public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
         return count("status", status);
     }
     
+    /**
+     * Conta ordens de serviço de todos os status em uma única consulta (group by)
+     */
+    public Map<OrdemServico.StatusOrdemServico, Long> countAgrupadoPorStatus() {
+        Map<OrdemServico.StatusOrdemServico, Long> contagem = new EnumMap<>(OrdemServico.StatusOrdemServico.class);
+        getEntityManager()
+                .createQuery("select o.status, count(o) from OrdemServico o group by o.status", Object[].class)
+                .getResultList()
+                .forEach(linha -> contagem.put((OrdemServico.StatusOrdemServico) linha[0], (Long) linha[1]));
+        return contagem;
+    }
+    
     /**
      * Conta ordens de serviço por cliente
      */
@@ -138,4 +259,61 @@ public class OrdemServicoRepository implements PanacheRepository<OrdemServico> {
     public List<OrdemServico> findByClienteIdOrderByDataRecebimentoDesc(Long clienteId) {
         return find("cliente.id = ?1 order by dataRecebimento desc", clienteId).list();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Busca ordens de serviço por filtros opcionais com paginação por cursor
+     * (dataRecebimento desc, id desc). Busca limite + 1 linhas para saber se há próxima página.
+     */
+    public PaginaCursor<OrdemServico> findByFiltrosComCursor(Long clienteId, Long veiculoId,
+                                                             OrdemServico.StatusOrdemServico status,
+                                                             LocalDateTime dataInicial, LocalDateTime dataFinal,
+                                                             CursorOrdemServico cursor, int limite) {
+        List<String> condicoes = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+        
+        if (clienteId != null) {
+            condicoes.add("cliente.id = :clienteId");
+            parametros.put("clienteId", clienteId);
+        }
+        if (veiculoId != null) {
+            condicoes.add("veiculo.id = :veiculoId");
+            parametros.put("veiculoId", veiculoId);
+        }
+        if (status != null) {
+            condicoes.add("status = :status");
+            parametros.put("status", status);
+        }
+        if (dataInicial != null) {
+            condicoes.add("dataRecebimento >= :dataInicial");
+            parametros.put("dataInicial", dataInicial);
+        }
+        if (dataFinal != null) {
+            condicoes.add("dataRecebimento <= :dataFinal");
+            parametros.put("dataFinal", dataFinal);
+        }
+        if (cursor != null) {
+            condicoes.add("(dataRecebimento < :cursorData or (dataRecebimento = :cursorData and id < :cursorId))");
+            parametros.put("cursorData", cursor.getDataRecebimento());
+            parametros.put("cursorId", cursor.getId());
+        }
+        
+        String query = String.join(" and ", condicoes) + " order by dataRecebimento desc, id desc";
+        List<OrdemServico> ordens = comGrafoResumo(find(query.trim(), parametros))
+                .page(Page.ofSize(limite + 1))
+                .list();
+        
+        if (ordens.size() <= limite) {
+            return new PaginaCursor<>(ordens, null);
+        }
+        List<OrdemServico> pagina = ordens.subList(0, limite);
+        return new PaginaCursor<>(pagina, CursorOrdemServico.de(pagina.get(limite - 1)).codificar());
+    }
+    
+    /**
+     * Aplica o grafo de resumo (cliente e veículo no mesmo SELECT) para evitar N+1 nas listagens
+     */
+    private PanacheQuery<OrdemServico> comGrafoResumo(PanacheQuery<OrdemServico> query) {
+        return query.withHint(SpecHints.HINT_SPEC_FETCH_GRAPH,
+                getEntityManager().getEntityGraph(OrdemServico.GRAFO_RESUMO));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Page;
+
+import java.util.List;
+
+/**
+ * Página de resultados por número de página (offset), com total vindo de um count() no banco.
+ */
+public class Pagina<T> {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private final List<T> itens;
+    private final long total;
+    private final int pagina;
+    private final int tamanho;
+
+    public Pagina(List<T> itens, long total, int pagina, int tamanho) {
+        this.itens = itens;
+        this.total = total;
+        this.pagina = pagina;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Executa a consulta paginada e a consulta de contagem correspondente
+     */
+    public static <T> Pagina<T> de(PanacheQuery<T> query, int pagina, int tamanho) {
+        int paginaValida = Math.max(pagina, 0);
+        int tamanhoValido = normalizarTamanho(tamanho);
+        List<T> itens = query.page(Page.of(paginaValida, tamanhoValido)).list();
+        return new Pagina<>(itens, query.count(), paginaValida, tamanhoValido);
+    }
+
+    /**
+     * Limita o tamanho de página entre 1 e TAMANHO_MAXIMO
+     */
+    public static int normalizarTamanho(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getPagina() {
+        return pagina;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+}
@@ -0,0 +1,30 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginada por cursor (keyset).
+ * proximoCursor é null quando não há mais resultados.
+ */
+public class PaginaCursor<T> {
+
+    private final List<T> itens;
+    private final String proximoCursor;
+
+    public PaginaCursor(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean temProximaPagina() {
+        return proximoCursor != null;
+    }
+}
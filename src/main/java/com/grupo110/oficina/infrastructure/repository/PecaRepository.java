@@ -2,14 +2,29 @@ package com.grupo110.oficina.infrastructure.repository;
 
 import com.grupo110.oficina.domain.model.Peca;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class PecaRepository implements PanacheRepository<Peca> {
+
+    /**
+     * Busca vários registros por ID em uma única consulta
+     */
+    public List<Peca> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return list("id in ?1", ids);
+    }
     
     /**
      * Busca peça por código
@@ -18,6 +33,25 @@ public class PecaRepository implements PanacheRepository<Peca> {
         return find("codigo", codigo).firstResultOptional();
     }
     
+    /**
+     * Busca várias peças por código bloqueando as linhas para atualização em ordem de ID, para que
+     * duas movimentações em lote não travem uma à outra. Os IDs são resolvidos antes, sem bloqueio:
+     * com "codigo in ... for update" o MySQL bloqueia na ordem do índice de código, não na do order by.
+     */
+    public List<Peca> findByCodigosParaAtualizacao(Collection<String> codigos) {
+        if (codigos.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = getEntityManager()
+                .createQuery("select p.id from Peca p where p.codigo in :codigos", Long.class)
+                .setParameter("codigos", codigos)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return find("id in ?1", Sort.by("id"), ids).withLock(LockModeType.PESSIMISTIC_WRITE).list();
+    }
+    
     /**
      * Busca peça por nome
      */
@@ -40,31 +74,22 @@ public class PecaRepository implements PanacheRepository<Peca> {
     }
     
     /**
-     * Busca peças por marca de veículo
-     */
-    public List<Peca> findByMarcaVeiculo(String marcaVeiculo) {
-        return find("marcaVeiculo", marcaVeiculo).list();
-    }
-    
-    /**
-     * Busca peças por modelo de veículo
-     */
-    public List<Peca> findByModeloVeiculo(String modeloVeiculo) {
-        return find("modeloVeiculo", modeloVeiculo).list();
-    }
-    
-    /**
-     * Busca peças por ano de veículo
+     * Busca peças por nome (busca parcial)
      */
-    public List<Peca> findByAnoInicioLessThanEqualAndAnoFimGreaterThanEqual(Integer ano) {
-        return find("anoInicio <= ?1 and anoFim >= ?1", ano).list();
+    public List<Peca> findByNomeContainingIgnoreCase(String nome) {
+        return find("LOWER(nome) LIKE LOWER(?1)", "%" + nome + "%").list();
     }
     
     /**
-     * Busca peças por nome (busca parcial)
+     * Percorre todas as peças em ordem de ID sem materializar a lista, para montar índices em memória.
+     * As entidades são somente leitura e o driver busca as linhas em lotes de tamanhoLote
+     * (requer useCursorFetch=true no MySQL). O Stream deve ser fechado e consumido dentro de uma transação.
      */
-    public List<Peca> findByNomeContainingIgnoreCase(String nome) {
-        return find("LOWER(nome) LIKE LOWER(?1)", "%" + nome + "%").list();
+    public Stream<Peca> streamCatalogo(int tamanhoLote) {
+        return find("order by id")
+                .withHint(HibernateHints.HINT_FETCH_SIZE, tamanhoLote)
+                .withHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
     }
     
     /**
@@ -85,7 +110,18 @@ public class PecaRepository implements PanacheRepository<Peca> {
      * Busca peças com estoque baixo
      */
     public List<Peca> findPecasComEstoqueBaixo() {
-        return find("quantidadeEstoque <= estoqueMinimo and ativo = true").list();
+        return find("quantidadeEstoque <= quantidadeMinima and ativo = true").list();
+    }
+    
+    /**
+     * Estoque e mínimo (id, quantidadeEstoque, quantidadeMinima) das peças ativas sem estoque ou
+     * abaixo do mínimo, para montar o monitor de estoque
+     */
+    public List<Object[]> findSituacoesEstoqueBaixo() {
+        return getEntityManager()
+                .createQuery("select p.id, p.quantidadeEstoque, p.quantidadeMinima from Peca p where p.ativo = true "
+                        + "and (p.quantidadeEstoque = 0 or p.quantidadeEstoque <= p.quantidadeMinima)", Object[].class)
+                .getResultList();
     }
     
     /**
@@ -197,7 +233,7 @@ public class PecaRepository implements PanacheRepository<Peca> {
      * Conta peças com estoque baixo
      */
     public long countPecasComEstoqueBaixo() {
-        return count("quantidadeEstoque <= estoqueMinimo and ativo = true");
+        return count("quantidadeEstoque <= quantidadeMinima and ativo = true");
     }
     
     /**
@@ -206,4 +242,64 @@ public class PecaRepository implements PanacheRepository<Peca> {
     public long countPecasSemEstoque() {
         return count("quantidadeEstoque = 0 and ativo = true");
     }
-} 
\ No newline at end of file
+    
+    // Movimentações de estoque: um único UPDATE condicional, sem ler a linha antes. A condição
+    // garante o saldo e o banco serializa as atualizações da mesma linha, então não há perda de
+    // atualização entre requisições concorrentes. Retornam false quando a condição não é atendida
+    // (peça inexistente ou saldo insuficiente). Todas incrementam a versão da peça.
+    
+    /**
+     * Soma ao estoque
+     */
+    public boolean adicionarEstoque(Long id, int quantidade) {
+        return update("quantidadeEstoque = quantidadeEstoque + ?1, versao = versao + 1 where id = ?2",
+                quantidade, id) > 0;
+    }
+    
+    /**
+     * Retira do estoque, desde que a quantidade não reservada seja suficiente
+     */
+    public boolean removerEstoque(Long id, int quantidade) {
+        return update("quantidadeEstoque = quantidadeEstoque - ?1, versao = versao + 1 "
+                + "where id = ?2 and quantidadeEstoque - quantidadeReservada >= ?1", quantidade, id) > 0;
+    }
+    
+    /**
+     * Define o estoque (inventário), desde que não fique abaixo do que já está reservado
+     */
+    public boolean definirEstoque(Long id, int quantidade) {
+        return update("quantidadeEstoque = ?1, versao = versao + 1 "
+                + "where id = ?2 and quantidadeReservada <= ?1", quantidade, id) > 0;
+    }
+    
+    /**
+     * Reserva parte do estoque disponível
+     */
+    public boolean reservarEstoque(Long id, int quantidade) {
+        return update("quantidadeReservada = quantidadeReservada + ?1, versao = versao + 1 "
+                + "where id = ?2 and quantidadeEstoque - quantidadeReservada >= ?1", quantidade, id) > 0;
+    }
+    
+    /**
+     * Desfaz uma reserva, devolvendo a quantidade ao disponível
+     */
+    public boolean liberarReserva(Long id, int quantidade) {
+        return update("quantidadeReservada = quantidadeReservada - ?1, versao = versao + 1 "
+                + "where id = ?2 and quantidadeReservada >= ?1", quantidade, id) > 0;
+    }
+    
+    /**
+     * Efetiva uma reserva: a quantidade sai do estoque e da reserva
+     */
+    public boolean baixarReserva(Long id, int quantidade) {
+        return update("quantidadeEstoque = quantidadeEstoque - ?1, quantidadeReservada = quantidadeReservada - ?1, "
+                + "versao = versao + 1 where id = ?2 and quantidadeReservada >= ?1", quantidade, id) > 0;
+    }
+    
+    /**
+     * Busca paginada com filtros aplicados no banco de dados (total via count)
+     */
+    public Pagina<Peca> findPaginado(FiltroConsulta filtro, Sort sort, int pagina, int tamanho) {
+        return Pagina.de(find(filtro.getQuery(), sort, filtro.getParametros()), pagina, tamanho);
+    }
+}
@@ -0,0 +1,37 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import com.grupo110.oficina.domain.model.RefreshToken;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+
+@ApplicationScoped
+public class RefreshTokenRepository implements PanacheRepositoryBase<RefreshToken, String> {
+
+    /**
+     * Marca o token como rotacionado se ainda não estiver; o UPDATE condicional garante que só uma
+     * renovação concorrente, em qualquer instância, consome o mesmo token
+     */
+    public boolean consumir(String tokenHash) {
+        return update("rotacionado = true where tokenHash = ?1 and rotacionado = false", tokenHash) == 1;
+    }
+
+    /**
+     * Remove os tokens ainda válidos da família; os rotacionados ficam para detectar reuso
+     */
+    public long revogarFamilia(String familia) {
+        return delete("familia = ?1 and rotacionado = false", familia);
+    }
+
+    /**
+     * Remove os tokens ainda válidos do usuário
+     */
+    public long revogarUsuario(Long usuarioId) {
+        return delete("usuarioId = ?1 and rotacionado = false", usuarioId);
+    }
+
+    public long removerExpirados(Instant agora) {
+        return delete("expiraEm <= ?1", agora);
+    }
+}
@@ -0,0 +1,52 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import com.grupo110.oficina.domain.model.SaldoEstoque;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@ApplicationScoped
+public class SaldoEstoqueRepository implements PanacheRepository<SaldoEstoque> {
+
+    /**
+     * Último saldo consolidado da peça com corte até a data informada
+     */
+    public Optional<SaldoEstoque> findUltimoAte(Long pecaId, LocalDateTime data) {
+        return find("pecaId = ?1 and dataCorte <= ?2", Sort.descending("dataCorte"), pecaId, data)
+                .firstResultOptional();
+    }
+
+    /**
+     * Data de corte da consolidação mais recente
+     */
+    public Optional<LocalDateTime> findUltimoCorte() {
+        return Optional.ofNullable(getEntityManager()
+                .createQuery("select max(s.dataCorte) from SaldoEstoque s", LocalDateTime.class)
+                .getSingleResult());
+    }
+
+    /**
+     * Grava o saldo em corte das peças movimentadas em [inicio, corte): último saldo de cada peça
+     * mais a soma dos lançamentos do intervalo. Peças sem lançamentos mantêm o saldo anterior.
+     * Retorna o número de saldos gravados.
+     */
+    public int consolidar(LocalDateTime inicio, LocalDateTime corte) {
+        return getEntityManager()
+                .createNativeQuery("INSERT INTO saldos_estoque (peca_id, data_corte, quantidade) "
+                        + "SELECT m.peca_id, ?1, COALESCE((SELECT s.quantidade FROM saldos_estoque s "
+                        + "WHERE s.peca_id = m.peca_id ORDER BY s.data_corte DESC LIMIT 1), 0) + SUM(m.quantidade) "
+                        + "FROM movimentacoes_estoque m "
+                        + "WHERE m.data_movimentacao >= ?2 AND m.data_movimentacao < ?1 "
+                        + "GROUP BY m.peca_id")
+                .setParameter(1, corte)
+                .setParameter(2, inicio)
+                // Só afeta saldos_estoque: sem isso o Hibernate esvaziaria todo o cache de segundo nível
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(SaldoEstoque.class)
+                .executeUpdate();
+    }
+}
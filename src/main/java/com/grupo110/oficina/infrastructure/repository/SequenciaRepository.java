@@ -0,0 +1,37 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import com.grupo110.oficina.domain.model.Sequencia;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+
+@ApplicationScoped
+public class SequenciaRepository implements PanacheRepositoryBase<Sequencia, String> {
+
+    /**
+     * Reserva os próximos tamanho valores da sequência e retorna o primeiro deles.
+     * A linha fica bloqueada (SELECT ... FOR UPDATE) só durante esta transação própria,
+     * então instâncias diferentes da aplicação nunca recebem faixas sobrepostas.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public long reservarBloco(String nome, int tamanho) {
+        Sequencia sequencia = findByIdOptional(nome, LockModeType.PESSIMISTIC_WRITE)
+                .orElseThrow(() -> new RuntimeException("Sequência não encontrada: " + nome));
+        long inicio = sequencia.getProximoValor();
+        sequencia.setProximoValor(inicio + tamanho);
+        return inicio;
+    }
+
+    /**
+     * Incrementa a sequência na transação atual e retorna o valor anterior. A linha fica bloqueada
+     * até o fim da transação, o que serializa entre instâncias o trabalho feito nela.
+     */
+    public long incrementar(String nome) {
+        Sequencia sequencia = findByIdOptional(nome, LockModeType.PESSIMISTIC_WRITE)
+                .orElseThrow(() -> new RuntimeException("Sequência não encontrada: " + nome));
+        long valor = sequencia.getProximoValor();
+        sequencia.setProximoValor(valor + 1);
+        return valor;
+    }
+}
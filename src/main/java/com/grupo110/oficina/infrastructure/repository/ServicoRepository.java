@@ -3,14 +3,27 @@ package com.grupo110.oficina.infrastructure.repository;
 import com.grupo110.oficina.domain.model.Peca;
 import com.grupo110.oficina.domain.model.Servico;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
 public class ServicoRepository implements PanacheRepository<Servico> {
+
+    /**
+     * Busca vários registros por ID em uma única consulta
+     */
+    public List<Servico> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return list("id in ?1", ids);
+    }
     
     /**
      * Busca serviço por nome
@@ -34,10 +47,10 @@ public class ServicoRepository implements PanacheRepository<Servico> {
     }
     
     /**
-     * Busca serviços ativos
+     * Busca serviços ativos (resultado no cache de consultas do Hibernate)
      */
     public List<Servico> findAtivos() {
-        return find("ativo", true).list();
+        return find("ativo", true).withHint(HibernateHints.HINT_CACHEABLE, true).list();
     }
     
     /**
@@ -130,4 +143,11 @@ public class ServicoRepository implements PanacheRepository<Servico> {
     public long countByAtivoTrue() {
         return count("ativo", true);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Busca paginada com filtros aplicados no banco de dados (total via count)
+     */
+    public Pagina<Servico> findPaginado(FiltroConsulta filtro, Sort sort, int pagina, int tamanho) {
+        return Pagina.de(find(filtro.getQuery(), sort, filtro.getParametros()), pagina, tamanho);
+    }
+}
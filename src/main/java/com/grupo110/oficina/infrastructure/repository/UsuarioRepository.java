@@ -3,9 +3,13 @@ package com.grupo110.oficina.infrastructure.repository;
 import com.grupo110.oficina.domain.model.Usuario;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ApplicationScoped
@@ -18,6 +22,14 @@ public class UsuarioRepository implements PanacheRepository<Usuario> {
         return find("username", username).firstResultOptional();
     }
     
+    /**
+     * Busca usuário com perfil e permissões carregados em uma única consulta
+     */
+    public Optional<Usuario> findComPerfilEPermissoes(Long id) {
+        return find("select u from Usuario u left join fetch u.perfil p left join fetch p.permissoes "
+                + "where u.id = ?1", id).singleResultOptional();
+    }
+    
     /**
      * Busca usuário por email
      */
@@ -137,4 +149,28 @@ public class UsuarioRepository implements PanacheRepository<Usuario> {
     public List<Usuario> findByPerfisTipo(String tipoPerfil) {
         return find("from Usuario u join u.perfis p where p.tipo = ?1", tipoPerfil).list();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Grava o último acesso de vários usuários em um único lote JDBC.
+     * Não sobrescreve um valor mais recente já gravado no banco.
+     */
+    public void atualizarUltimoAcessoEmLote(Map<Long, LocalDateTime> acessos) {
+        if (acessos.isEmpty()) {
+            return;
+        }
+        getEntityManager().unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement update = conexao.prepareStatement(
+                    "UPDATE usuarios SET ultimo_acesso = ? WHERE id = ? "
+                            + "AND (ultimo_acesso IS NULL OR ultimo_acesso < ?)")) {
+                for (Map.Entry<Long, LocalDateTime> acesso : acessos.entrySet()) {
+                    Timestamp momento = Timestamp.valueOf(acesso.getValue());
+                    update.setTimestamp(1, momento);
+                    update.setLong(2, acesso.getKey());
+                    update.setTimestamp(3, momento);
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        });
+    }
+}
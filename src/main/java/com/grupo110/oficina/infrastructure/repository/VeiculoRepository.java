@@ -2,6 +2,7 @@ package com.grupo110.oficina.infrastructure.repository;
 
 import com.grupo110.oficina.domain.model.Veiculo;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.util.List;
@@ -93,4 +94,11 @@ public class VeiculoRepository implements PanacheRepository<Veiculo> {
     public List<Veiculo> findByCombustivel(Veiculo.TipoCombustivel combustivel) {
         return find("combustivel", combustivel).list();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Busca paginada com filtros aplicados no banco de dados (total via count)
+     */
+    public Pagina<Veiculo> findPaginado(FiltroConsulta filtro, Sort sort, int pagina, int tamanho) {
+        return Pagina.de(find(filtro.getQuery(), sort, filtro.getParametros()), pagina, tamanho);
+    }
+}
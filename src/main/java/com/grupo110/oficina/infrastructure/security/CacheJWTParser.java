@@ -0,0 +1,146 @@
+package com.grupo110.oficina.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * JWTParser usado pela autenticação bearer que guarda os tokens já verificados.
+ * Um token repetido (os tablets reenviam o mesmo token a cada requisição) não passa de
+ * novo pela verificação da assinatura RSA até o seu exp. A chave do cache é o SHA-256
+ * do token; cada entrada expira no exp do próprio token e, com o cache cheio
+ * (oficina.jwt.cache.tamanho-maximo), o Caffeine descarta as menos usadas em O(1).
+ * Tamanho 0 desliga o cache (toda requisição verifica a assinatura).
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CacheJWTParser implements JWTParser {
+
+    @Inject
+    JWTAuthContextInfo authContextInfo;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "oficina.jwt.cache.tamanho-maximo", defaultValue = "10000")
+    int tamanhoMaximo;
+
+    private Cache<String, JsonWebToken> verificados;
+
+    private JWTParser delegate;
+    private Counter acertos;
+    private Counter falhas;
+
+    @PostConstruct
+    void iniciar() {
+        delegate = new DefaultJWTParser(authContextInfo);
+        acertos = registry.counter("oficina.jwt.cache", "resultado", "acerto");
+        falhas = registry.counter("oficina.jwt.cache", "resultado", "falha");
+        if (tamanhoMaximo > 0) {
+            verificados = Caffeine.newBuilder()
+                    .maximumSize(tamanhoMaximo)
+                    .expireAfter(Expiry.creating(CacheJWTParser::ateExpirar))
+                    .build();
+            registry.gauge("oficina.jwt.cache.tamanho", Tags.empty(), verificados, Cache::estimatedSize);
+        }
+    }
+
+    @Override
+    public JsonWebToken parse(String token) throws ParseException {
+        if (verificados == null) {
+            return delegate.parse(token);
+        }
+        String chave = hash(token);
+        JsonWebToken jwt = verificados.getIfPresent(chave);
+        if (jwt != null) {
+            acertos.increment();
+            return jwt;
+        }
+
+        falhas.increment();
+        jwt = delegate.parse(token);
+        verificados.put(chave, jwt);
+        return jwt;
+    }
+
+    @Override
+    public JsonWebToken parse(String token, JWTAuthContextInfo context) throws ParseException {
+        return delegate.parse(token, context);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, PublicKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, SecretKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, String secret) throws ParseException {
+        return delegate.verify(token, secret);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, PrivateKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, SecretKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, String secret) throws ParseException {
+        return delegate.decrypt(token, secret);
+    }
+
+    @Override
+    public JsonWebToken parseOnly(String token) throws ParseException {
+        return delegate.parseOnly(token);
+    }
+
+    /**
+     * Tempo até o exp do token; um token já expirado sai do cache imediatamente
+     */
+    private static Duration ateExpirar(String chave, JsonWebToken jwt) {
+        long restanteSegundos = jwt.getExpirationTime() - System.currentTimeMillis() / 1000;
+        return restanteSegundos > 0 ? Duration.ofSeconds(restanteSegundos) : Duration.ZERO;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.grupo110.oficina.interfaces.rest;
+
+import com.grupo110.oficina.application.event.AlertaEstoqueEvento;
+import com.grupo110.oficina.application.service.MonitorEstoqueService;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+/**
+ * Stream (SSE) das mudanças de situação de estoque para o balcão de peças, no lugar do polling
+ * das listas de estoque baixo. Fica fora do PecaResource porque a conexão aberta não pode
+ * rodar em virtual thread: o Multi é servido pelo event loop.
+ */
+@Path("/api/pecas/estoque/alertas")
+@RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
+@Tag(name = "Peças", description = "Operações para gerenciamento de peças")
+public class AlertaEstoqueResource {
+
+    @Inject
+    MonitorEstoqueService monitorEstoqueService;
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Acompanhar alertas de estoque", description = "Envia um evento sempre que uma peça fica abaixo do mínimo, zera ou volta ao normal")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Stream de alertas aberto",
+            content = @Content(schema = @Schema(implementation = AlertaEstoqueEvento.class)))
+    })
+    public Multi<AlertaEstoqueEvento> acompanharAlertas() {
+        return monitorEstoqueService.streamAlertas();
+    }
+}
@@ -1,46 +1,93 @@
 package com.grupo110.oficina.interfaces.rest;
 
 import com.grupo110.oficina.application.dto.LoginRequest;
+import com.grupo110.oficina.application.service.AutenticacaoService;
+import com.grupo110.oficina.application.service.CredenciaisInvalidasException;
+import com.grupo110.oficina.application.service.RefreshTokenService;
 import com.grupo110.oficina.application.service.TokenService;
-import com.grupo110.oficina.application.service.UsuarioService;
-import com.grupo110.oficina.domain.model.Usuario;
+import io.smallrye.common.annotation.Blocking;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.context.ManagedExecutor;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 
 @Path("/auth")
 public class AuthResource {
 
+    static final String HEADER_REFRESH_TOKEN = "X-Refresh-Token";
+
     @Inject
     TokenService tokenService;
 
     @Inject
-    UsuarioService usuarioService;
+    AutenticacaoService autenticacaoService;
+
+    @Inject
+    RefreshTokenService refreshTokenService;
+
+    @Inject
+    ManagedExecutor executor;
 
     @POST
     @Path("/login")
+    @Blocking
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.TEXT_PLAIN)
-    public Response login(LoginRequest request) {
+    public CompletionStage<Response> login(LoginRequest request) {
         String username = request.getUsername();
-        String password = request.getPassword();
-        Usuario usuario = null;
+        return autenticacaoService.autenticar(username, request.getPassword())
+                // Assinatura e refresh token no pool de workers, liberando o executor de senhas para o próximo bcrypt
+                .thenApplyAsync(usuario -> {
+                    String role = usuario.getPerfil().getTipo().name();
+                    String token = tokenService.generateToken(username, role);
+                    String refreshToken = refreshTokenService.emitir(usuario.getId(), username, role);
+                    return Response.ok(token)
+                            .header(HEADER_REFRESH_TOKEN, refreshToken)
+                            .build();
+                }, executor)
+                .exceptionally(erro -> {
+                    Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                            ? erro.getCause() : erro;
+                    if (causa instanceof RejectedExecutionException) {
+                        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                                .header("Retry-After", 1)
+                                .entity("Muitas tentativas de login simultâneas, tente novamente.")
+                                .build();
+                    }
+                    if (causa instanceof CredenciaisInvalidasException) {
+                        return Response.status(Response.Status.UNAUTHORIZED).entity("Usuário ou senha inválidos.").build();
+                    }
+                    // Falha de infraestrutura (ex.: banco): segue como 500, não como credencial inválida
+                    throw erro instanceof CompletionException ? (CompletionException) erro : new CompletionException(erro);
+                });
+    }
+
+    /**
+     * Troca o refresh token (header X-Refresh-Token) por um novo access token e um novo
+     * refresh token, sem consultar o usuário no banco
+     */
+    @POST
+    @Path("/refresh")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response refresh(@HeaderParam(HEADER_REFRESH_TOKEN) String refreshToken) {
+        RefreshTokenService.RegistroRefresh registro;
         try {
-            usuario = usuarioService.buscarPorUsername(username);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        if (usuario == null) {
-            return Response.status(Response.Status.UNAUTHORIZED).entity("Usuário ou senha inválidos.").build();
-        }
-        if (!password.equals(usuario.getSenha())) {
-            return Response.status(Response.Status.UNAUTHORIZED).entity("Usuário ou senha inválidos.").build();
+            registro = refreshTokenService.renovar(refreshToken);
+        } catch (RuntimeException e) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity(e.getMessage()).build();
         }
-        String token = tokenService.generateToken(username, usuario.getPerfil().getTipo().name());
-        return Response.ok(token).build();
+        String token = tokenService.generateToken(registro.getUsername(), registro.getRoles());
+        return Response.ok(token)
+                .header(HEADER_REFRESH_TOKEN, registro.getToken())
+                .build();
     }
 }
\ No newline at end of file
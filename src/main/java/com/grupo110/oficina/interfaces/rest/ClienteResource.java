@@ -2,6 +2,8 @@ package com.grupo110.oficina.interfaces.rest;
 
 import com.grupo110.oficina.application.service.ClienteService;
 import com.grupo110.oficina.domain.model.Cliente;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -17,13 +19,12 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
-import java.util.List;
-
 @Path("/api/clientes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE"})
 @Tag(name = "Clientes", description = "Operações para gerenciamento de clientes")
+@RunOnVirtualThread
 public class ClienteResource {
 
     @Inject
@@ -52,7 +53,7 @@ public class ClienteResource {
     }
 
     @GET
-    @Operation(summary = "Listar clientes", description = "Lista todos os clientes com paginação opcional")
+    @Operation(summary = "Listar clientes", description = "Lista clientes com filtros opcionais e paginação no banco de dados")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso",
             content = @Content(schema = @Schema(implementation = Cliente.class)))
@@ -64,38 +65,12 @@ public class ClienteResource {
             @Parameter(description = "Filtrar por documento") @QueryParam("documento") String documento,
             @Parameter(description = "Filtrar por ativo") @QueryParam("ativo") Boolean ativo) {
         
-        List<Cliente> clientes = clienteService.listarTodos();
-        
-        // Aplicar filtros se fornecidos
-        if (nome != null && !nome.trim().isEmpty()) {
-            clientes = clientes.stream()
-                    .filter(c -> c.getNome().toLowerCase().contains(nome.toLowerCase()))
-                    .toList();
-        }
-        
-        if (documento != null && !documento.trim().isEmpty()) {
-            clientes = clientes.stream()
-                    .filter(c -> c.getDocumento().contains(documento))
-                    .toList();
-        }
-        
-        if (ativo != null) {
-            clientes = clientes.stream()
-                    .filter(c -> c.getAtivo().equals(ativo))
-                    .toList();
-        }
-        
-        // Aplicar paginação
-        int total = clientes.size();
-        int start = page * size;
-        int end = Math.min(start + size, total);
-        
-        List<Cliente> clientesPaginados = clientes.subList(start, end);
+        Pagina<Cliente> clientes = clienteService.listarPaginado(nome, documento, ativo, page, size);
         
-        return Response.ok(clientesPaginados)
-                .header("X-Total-Count", total)
-                .header("X-Page", page)
-                .header("X-Size", size)
+        return Response.ok(clientes.getItens())
+                .header("X-Total-Count", clientes.getTotal())
+                .header("X-Page", clientes.getPagina())
+                .header("X-Size", clientes.getTamanho())
                 .build();
     }
 
@@ -0,0 +1,84 @@
+package com.grupo110.oficina.interfaces.rest;
+
+import com.grupo110.oficina.application.dto.OrdemServicoDTO;
+import com.grupo110.oficina.application.service.ConsultaReativaOrdemServicoService;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * Variante não bloqueante das consultas de acompanhamento de OS (polling de status pelos clientes).
+ * Os métodos devolvem Uni/Multi e rodam no event loop, sem ocupar worker nem conexão JDBC.
+ * Habilitada com oficina.os.leitura-reativa.habilitada=true no build.
+ */
+@Path("/api/ordens-servico/reativo")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Ordens de Serviço", description = "Operações para gerenciamento de ordens de serviço")
+@IfBuildProperty(name = "oficina.os.leitura-reativa.habilitada", stringValue = "true")
+public class OrdemServicoReativaResource {
+
+    @Inject
+    ConsultaReativaOrdemServicoService consultaService;
+
+    @GET
+    @Path("/{id}")
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
+    @Operation(summary = "Buscar resumo da ordem de serviço (não bloqueante)", description = "Retorna o resumo de uma ordem de serviço pelo ID, sem itens e histórico")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Ordem de serviço encontrada",
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class))),
+        @APIResponse(responseCode = "404", description = "Ordem de serviço não encontrada"),
+        @APIResponse(responseCode = "500", description = "Falha na consulta ao banco")
+    })
+    public Uni<Response> buscarOrdemServicoPorId(
+            @Parameter(description = "ID da ordem de serviço") @PathParam("id") Long id) {
+        // Só a ordem inexistente vira 404; falhas da consulta (pool, banco) seguem como 500
+        return consultaService.buscarResumoPorId(id)
+                .map(ordem -> ordem != null
+                        ? Response.ok(ordem).build()
+                        : Response.status(Response.Status.NOT_FOUND)
+                                .entity("{\"erro\": \"Ordem de serviço não encontrada com ID: " + id + "\"}")
+                                .build());
+    }
+
+    @GET
+    @Path("/cliente/{clienteId}")
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO", "CLIENTE"})
+    @Operation(summary = "Listar ordens por cliente (não bloqueante)", description = "Retorna o resumo das ordens de serviço de um cliente específico")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Ordens do cliente retornadas com sucesso",
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class)))
+    })
+    public Multi<OrdemServicoDTO> listarOrdensPorCliente(
+            @Parameter(description = "ID do cliente") @PathParam("clienteId") Long clienteId) {
+        return consultaService.listarResumoPorCliente(clienteId);
+    }
+
+    @GET
+    @Path("/veiculo/{veiculoId}")
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
+    @Operation(summary = "Listar ordens por veículo (não bloqueante)", description = "Retorna o resumo das ordens de serviço de um veículo específico")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Ordens do veículo retornadas com sucesso",
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class)))
+    })
+    public Multi<OrdemServicoDTO> listarOrdensPorVeiculo(
+            @Parameter(description = "ID do veículo") @PathParam("veiculoId") Long veiculoId) {
+        return consultaService.listarResumoPorVeiculo(veiculoId);
+    }
+}
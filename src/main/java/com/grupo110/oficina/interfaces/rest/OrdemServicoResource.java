@@ -1,7 +1,15 @@
 package com.grupo110.oficina.interfaces.rest;
 
+import com.grupo110.oficina.application.dto.AdicionarItensRequest;
+import com.grupo110.oficina.application.dto.OrdemServicoDTO;
+import com.grupo110.oficina.application.service.AlertasExecucaoService;
+import com.grupo110.oficina.application.service.EstatisticasOrdemServicoService;
+import com.grupo110.oficina.application.service.ExportacaoOrdemServicoService;
 import com.grupo110.oficina.application.service.OrdemServicoService;
 import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
+import com.grupo110.oficina.infrastructure.repository.PaginaCursor;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -9,6 +17,7 @@ import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -17,17 +26,31 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Path("/api/ordens-servico")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Ordens de Serviço", description = "Operações para gerenciamento de ordens de serviço")
+@RunOnVirtualThread
 public class OrdemServicoResource {
 
     @Inject
     OrdemServicoService ordemServicoService;
 
+    @Inject
+    ExportacaoOrdemServicoService exportacaoService;
+
+    @Inject
+    EstatisticasOrdemServicoService estatisticasService;
+
+    @Inject
+    AlertasExecucaoService alertasExecucaoService;
+
     @POST
     @Transactional
     @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
@@ -53,10 +76,10 @@ public class OrdemServicoResource {
 
     @GET
     @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
-    @Operation(summary = "Listar ordens de serviço", description = "Lista todas as ordens de serviço com filtros opcionais")
+    @Operation(summary = "Listar ordens de serviço", description = "Lista ordens de serviço com filtros opcionais e paginação por cursor (mais recentes primeiro)")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Lista de ordens de serviço retornada com sucesso",
-            content = @Content(schema = @Schema(implementation = OrdemServico.class)))
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class)))
     })
     public Response listarOrdensServico(
             @Parameter(description = "Filtrar por cliente ID") @QueryParam("clienteId") Long clienteId,
@@ -64,47 +87,121 @@ public class OrdemServicoResource {
             @Parameter(description = "Filtrar por status") @QueryParam("status") String status,
             @Parameter(description = "Filtrar por data inicial") @QueryParam("dataInicial") String dataInicial,
             @Parameter(description = "Filtrar por data final") @QueryParam("dataFinal") String dataFinal,
-            @Parameter(description = "Filtrar por ativo") @QueryParam("ativo") Boolean ativo) {
-        
-        List<OrdemServico> ordens = ordemServicoService.listarTodas();
+            @Parameter(description = "Filtrar por ativo") @QueryParam("ativo") Boolean ativo,
+            @Parameter(description = "Cursor da próxima página (header X-Next-Cursor da resposta anterior)") @QueryParam("cursor") String cursor,
+            @Parameter(description = "Tamanho da página") @QueryParam("size") @DefaultValue("20") int size) {
         
-        // Aplicar filtros se fornecidos
-        if (clienteId != null) {
-            ordens = ordens.stream()
-                    .filter(o -> o.getCliente().getId().equals(clienteId))
-                    .toList();
-        }
-        
-        if (veiculoId != null) {
-            ordens = ordens.stream()
-                    .filter(o -> o.getVeiculo().getId().equals(veiculoId))
-                    .toList();
-        }
-        
-        if (status != null && !status.trim().isEmpty()) {
-            ordens = ordens.stream()
-                    .filter(o -> o.getStatus().toString().equalsIgnoreCase(status))
-                    .toList();
+        // Filtro por ativo ignorado - OrdemServico não possui campo ativo
+        try {
+            int limite = Pagina.normalizarTamanho(size);
+            PaginaCursor<OrdemServicoDTO> pagina = ordemServicoService.listarComFiltros(
+                    clienteId,
+                    veiculoId,
+                    converterStatus(status),
+                    converterData(dataInicial, false),
+                    converterData(dataFinal, true),
+                    cursor,
+                    limite);
+            
+            return Response.ok(pagina.getItens())
+                    .header("X-Next-Cursor", pagina.getProximoCursor())
+                    .header("X-Size", limite)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            // Somente filtros ou cursor inválidos; falhas de banco seguem como erro do servidor
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                    .build();
         }
-        
-        // Filtro por ativo removido - OrdemServico não possui campo ativo
-        
+    }
+
+    @GET
+    @Path("/estatisticas")
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
+    @Operation(summary = "Estatísticas das ordens de serviço", description = "Retorna a quantidade de ordens por status a partir de contadores em memória, sem consultar o banco")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso")
+    })
+    public Response obterEstatisticas() {
+        return Response.ok(estatisticasService.obterEstatisticas()).build();
+    }
+
+    @GET
+    @Path("/atrasadas")
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
+    @Operation(summary = "Listar ordens atrasadas", description = "Retorna as ordens em aberto com prazo de entrega vencido, da mais atrasada para a menos atrasada")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Ordens atrasadas retornadas com sucesso",
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class)))
+    })
+    public Response listarOrdensAtrasadas() {
+        List<OrdemServicoDTO> ordens = ordemServicoService.listarOrdensAtrasadas();
         return Response.ok(ordens).build();
     }
 
+    @GET
+    @Path("/execucao/alertas")
+    @RolesAllowed({"ADMIN", "GERENTE", "MECANICO"})
+    @Operation(summary = "Alertas de execução parada", description = "Retorna as ordens em execução além do limite configurado para a categoria de serviço")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Alertas retornados com sucesso",
+            content = @Content(schema = @Schema(implementation = AlertasExecucaoService.AlertaExecucao.class)))
+    })
+    public Response listarAlertasExecucao() {
+        return Response.ok(alertasExecucaoService.listarAlertas()).build();
+    }
+
+    @GET
+    @Path("/export")
+    @Produces({"application/x-ndjson", "text/csv", MediaType.APPLICATION_JSON})
+    @RolesAllowed({"ADMIN", "GERENTE"})
+    @Operation(summary = "Exportar ordens de serviço", description = "Exporta as ordens recebidas no período em NDJSON ou CSV, escrevendo as linhas à medida que são lidas do banco")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Exportação iniciada"),
+        @APIResponse(responseCode = "400", description = "Período ou formato inválido")
+    })
+    public Response exportarOrdensServico(
+            @Parameter(description = "Data inicial do recebimento", required = true) @QueryParam("dataInicial") String dataInicial,
+            @Parameter(description = "Data final do recebimento", required = true) @QueryParam("dataFinal") String dataFinal,
+            @Parameter(description = "Formato: ndjson ou csv") @QueryParam("formato") @DefaultValue("ndjson") String formato) {
+        try {
+            LocalDateTime inicio = converterData(dataInicial, false);
+            LocalDateTime fim = converterData(dataFinal, true);
+            if (inicio == null || fim == null) {
+                throw new RuntimeException("Informe dataInicial e dataFinal para exportar");
+            }
+            if (inicio.isAfter(fim)) {
+                throw new RuntimeException("Data inicial deve ser anterior à data final");
+            }
+            ExportacaoOrdemServicoService.Formato formatoExportacao = exportacaoService.converterFormato(formato);
+            
+            StreamingOutput saida = output -> exportacaoService.exportar(inicio, fim, formatoExportacao, output);
+            String arquivo = "ordens-servico-" + inicio.toLocalDate() + "-" + fim.toLocalDate()
+                    + "." + formatoExportacao.getExtensao();
+            return Response.ok(saida, formatoExportacao.getMediaType())
+                    .header("Content-Disposition", "attachment; filename=\"" + arquivo + "\"")
+                    .build();
+        } catch (RuntimeException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                    .build();
+        }
+    }
+
     @GET
     @Path("/{id}")
     @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
-    @Operation(summary = "Buscar ordem de serviço por ID", description = "Retorna uma ordem de serviço específica pelo ID")
+    @Operation(summary = "Buscar ordem de serviço por ID", description = "Retorna uma ordem de serviço específica pelo ID, com itens e histórico de status")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Ordem de serviço encontrada",
-            content = @Content(schema = @Schema(implementation = OrdemServico.class))),
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class))),
         @APIResponse(responseCode = "404", description = "Ordem de serviço não encontrada")
     })
     public Response buscarOrdemServicoPorId(
             @Parameter(description = "ID da ordem de serviço") @PathParam("id") Long id) {
         try {
-            OrdemServico ordem = ordemServicoService.buscarPorId(id);
+            OrdemServicoDTO ordem = ordemServicoService.buscarDetalhePorId(id);
             return Response.ok(ordem).build();
         } catch (RuntimeException e) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -119,13 +216,13 @@ public class OrdemServicoResource {
     @Operation(summary = "Listar ordens por cliente", description = "Retorna todas as ordens de serviço de um cliente específico")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Ordens do cliente retornadas com sucesso",
-            content = @Content(schema = @Schema(implementation = OrdemServico.class))),
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class))),
         @APIResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     public Response listarOrdensPorCliente(
             @Parameter(description = "ID do cliente") @PathParam("clienteId") Long clienteId) {
         try {
-            List<OrdemServico> ordens = ordemServicoService.listarPorCliente(clienteId);
+            List<OrdemServicoDTO> ordens = ordemServicoService.listarResumoPorCliente(clienteId);
             return Response.ok(ordens).build();
         } catch (RuntimeException e) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -140,13 +237,13 @@ public class OrdemServicoResource {
     @Operation(summary = "Listar ordens por veículo", description = "Retorna todas as ordens de serviço de um veículo específico")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Ordens do veículo retornadas com sucesso",
-            content = @Content(schema = @Schema(implementation = OrdemServico.class))),
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class))),
         @APIResponse(responseCode = "404", description = "Veículo não encontrado")
     })
     public Response listarOrdensPorVeiculo(
             @Parameter(description = "ID do veículo") @PathParam("veiculoId") Long veiculoId) {
         try {
-            List<OrdemServico> ordens = ordemServicoService.listarPorVeiculo(veiculoId);
+            List<OrdemServicoDTO> ordens = ordemServicoService.listarResumoPorVeiculo(veiculoId);
             return Response.ok(ordens).build();
         } catch (RuntimeException e) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -185,6 +282,36 @@ public class OrdemServicoResource {
         }
     }
 
+    @POST
+    @Path("/{id}/itens")
+    @Transactional
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
+    @Operation(summary = "Adicionar itens à ordem", description = "Adiciona vários itens de serviço e de peça à ordem de serviço de uma só vez")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Itens adicionados com sucesso",
+            content = @Content(schema = @Schema(implementation = OrdemServicoDTO.class))),
+        @APIResponse(responseCode = "400", description = "Dados inválidos"),
+        @APIResponse(responseCode = "404", description = "Ordem de serviço não encontrada")
+    })
+    public Response adicionarItens(
+            @Parameter(description = "ID da ordem de serviço") @PathParam("id") Long id,
+            AdicionarItensRequest request) {
+        try {
+            OrdemServicoDTO ordem = ordemServicoService.adicionarItens(id, request);
+            return Response.ok(ordem).build();
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("Ordem de serviço não encontrada")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            }
+        }
+    }
+
     @PATCH
     @Path("/{id}/iniciar")
     @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
@@ -262,4 +389,61 @@ public class OrdemServicoResource {
             }
         }
     }
-} 
\ No newline at end of file
+
+    @PATCH
+    @Path("/{id}/cancelar")
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE"})
+    @Transactional
+    @Operation(summary = "Cancelar ordem de serviço", description = "Cancela uma ordem de serviço em aberto, liberando as peças reservadas")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Ordem de serviço cancelada com sucesso"),
+        @APIResponse(responseCode = "400", description = "Status inválido para cancelar"),
+        @APIResponse(responseCode = "404", description = "Ordem de serviço não encontrada")
+    })
+    public Response cancelarOrdemServico(
+            @Parameter(description = "ID da ordem de serviço") @PathParam("id") Long id) {
+        try {
+            OrdemServico ordem = ordemServicoService.cancelar(id);
+            return Response.ok(ordem).build();
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("não encontrado")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            }
+        }
+    }
+
+    private OrdemServico.StatusOrdemServico converterStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return OrdemServico.StatusOrdemServico.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + status);
+        }
+    }
+
+    /**
+     * Aceita data (yyyy-MM-dd) ou data e hora ISO; datas finais sem hora incluem o dia inteiro
+     */
+    private LocalDateTime converterData(String data, boolean fimDoDia) {
+        if (data == null || data.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            if (data.contains("T")) {
+                return LocalDateTime.parse(data.trim());
+            }
+            LocalDate dia = LocalDate.parse(data.trim());
+            return fimDoDia ? dia.atTime(LocalTime.MAX) : dia.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + data);
+        }
+    }
+}
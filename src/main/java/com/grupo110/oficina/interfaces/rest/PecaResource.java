@@ -1,7 +1,13 @@
 package com.grupo110.oficina.interfaces.rest;
 
+import com.grupo110.oficina.application.dto.MovimentacaoEstoqueDTO;
+import com.grupo110.oficina.application.dto.ResultadoMovimentacaoEstoqueDTO;
+import com.grupo110.oficina.application.dto.SaldoEstoqueDTO;
 import com.grupo110.oficina.application.service.PecaService;
+import com.grupo110.oficina.domain.model.MovimentacaoEstoque;
 import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -17,6 +23,10 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Path("/api/pecas")
@@ -24,6 +34,7 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
 @Tag(name = "Peças", description = "Operações para gerenciamento de peças")
+@RunOnVirtualThread
 public class PecaResource {
 
     @Inject
@@ -52,45 +63,133 @@ public class PecaResource {
     }
 
     @GET
-    @Operation(summary = "Listar peças", description = "Lista todas as peças com filtros opcionais")
+    @Operation(summary = "Listar peças", description = "Lista peças com filtros opcionais e paginação no banco de dados")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Lista de peças retornada com sucesso",
             content = @Content(schema = @Schema(implementation = Peca.class)))
     })
     public Response listarPecas(
+            @Parameter(description = "Número da página") @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Tamanho da página") @QueryParam("size") @DefaultValue("20") int size,
             @Parameter(description = "Filtrar por nome") @QueryParam("nome") String nome,
             @Parameter(description = "Filtrar por categoria") @QueryParam("categoria") String categoria,
             @Parameter(description = "Filtrar por marca do veículo") @QueryParam("marca") String marca,
             @Parameter(description = "Filtrar por ativo") @QueryParam("ativo") Boolean ativo) {
         
-        List<Peca> pecas = pecaService.listarTodas();
+        Pagina<Peca> pecas = pecaService.listarPaginado(nome, categoria, marca, ativo, page, size);
         
-        // Aplicar filtros se fornecidos
-        if (nome != null && !nome.trim().isEmpty()) {
-            pecas = pecas.stream()
-                    .filter(p -> p.getNome().toLowerCase().contains(nome.toLowerCase()))
-                    .toList();
-        }
-        
-        if (categoria != null && !categoria.trim().isEmpty()) {
-            pecas = pecas.stream()
-                    .filter(p -> p.getCategoria() != null && p.getCategoria().name().toLowerCase().contains(categoria.toLowerCase()))
-                    .toList();
+        return Response.ok(pecas.getItens())
+                .header("X-Total-Count", pecas.getTotal())
+                .header("X-Page", pecas.getPagina())
+                .header("X-Size", pecas.getTamanho())
+                .build();
+    }
+
+    @POST
+    @Path("/estoque/movimentacoes")
+    @Transactional
+    @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE"})
+    @Operation(summary = "Movimentar estoque em lote", description = "Aplica entradas (quantidade positiva) e saídas (quantidade negativa) de várias peças, informadas por código, em uma única transação")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Movimentações processadas; o resultado de cada linha indica se foi aplicada",
+            content = @Content(schema = @Schema(implementation = ResultadoMovimentacaoEstoqueDTO.class))),
+        @APIResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    public Response movimentarEstoque(@Valid List<MovimentacaoEstoqueDTO> movimentacoes) {
+        if (movimentacoes == null || movimentacoes.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\": \"Informe ao menos uma movimentação\"}")
+                    .build();
         }
-        
-        if (marca != null && !marca.trim().isEmpty()) {
-            pecas = pecas.stream()
-                    .filter(p -> p.getMarcaVeiculo() != null && p.getMarcaVeiculo().toLowerCase().contains(marca.toLowerCase()))
-                    .toList();
+        List<ResultadoMovimentacaoEstoqueDTO> resultados = pecaService.movimentarEstoque(movimentacoes);
+        return Response.ok(resultados).build();
+    }
+
+    @GET
+    @Path("/estoque/baixo")
+    @Operation(summary = "Listar peças com estoque baixo", description = "Lista as peças ativas com estoque menor ou igual à quantidade mínima")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Peças com estoque baixo",
+            content = @Content(schema = @Schema(implementation = Peca.class)))
+    })
+    public Response listarPecasComEstoqueBaixo() {
+        return Response.ok(pecaService.listarComEstoqueBaixo()).build();
+    }
+
+    @GET
+    @Path("/estoque/sem-estoque")
+    @Operation(summary = "Listar peças sem estoque", description = "Lista as peças ativas com estoque zerado")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Peças sem estoque",
+            content = @Content(schema = @Schema(implementation = Peca.class)))
+    })
+    public Response listarPecasSemEstoque() {
+        return Response.ok(pecaService.listarSemEstoque()).build();
+    }
+
+    @GET
+    @Path("/busca")
+    @Operation(summary = "Buscar peças por texto", description = "Busca por código, nome, descrição, fabricante e veículo; aceita prefixos e pequenos erros de digitação e ordena por relevância")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Peças encontradas",
+            content = @Content(schema = @Schema(implementation = Peca.class))),
+        @APIResponse(responseCode = "400", description = "Texto de busca não informado")
+    })
+    public Response buscarPecas(
+            @Parameter(description = "Texto da busca", required = true) @QueryParam("q") String q,
+            @Parameter(description = "Quantidade máxima de resultados (até 100)") @QueryParam("limite") @DefaultValue("20") int limite) {
+        if (q == null || q.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\": \"Informe o texto da busca\"}")
+                    .build();
         }
-        
-        if (ativo != null) {
-            pecas = pecas.stream()
-                    .filter(p -> p.getAtivo().equals(ativo))
-                    .toList();
+        return Response.ok(pecaService.buscarPorTexto(q, Pagina.normalizarTamanho(limite))).build();
+    }
+
+    @GET
+    @Path("/busca/sugestoes")
+    @Operation(summary = "Sugerir termos de busca", description = "Completa a última palavra digitada com os termos mais frequentes do catálogo")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Termos sugeridos")
+    })
+    public Response sugerirTermos(
+            @Parameter(description = "Texto digitado") @QueryParam("q") String q,
+            @Parameter(description = "Quantidade máxima de sugestões (até 100)") @QueryParam("limite") @DefaultValue("10") int limite) {
+        return Response.ok(pecaService.sugerirTermos(q, Pagina.normalizarTamanho(limite))).build();
+    }
+
+    @GET
+    @Path("/compativeis")
+    @Operation(summary = "Listar peças compatíveis com um veículo", description = "Lista as peças ativas que servem no veículo, informado pelo ID ou por marca, modelo e ano; por padrão somente as com quantidade disponível. "
+            + "Marca e modelo são comparados sem diferenciar maiúsculas nem espaços nas pontas; peças sem marca ou sem modelo cadastrados servem em qualquer veículo, "
+            + "e ano inicial ou final não informado na peça deixa a faixa de anos aberta daquele lado")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Peças compatíveis",
+            content = @Content(schema = @Schema(implementation = Peca.class))),
+        @APIResponse(responseCode = "400", description = "Veículo não informado"),
+        @APIResponse(responseCode = "404", description = "Veículo não encontrado")
+    })
+    public Response listarPecasCompativeis(
+            @Parameter(description = "ID do veículo") @QueryParam("veiculoId") Long veiculoId,
+            @Parameter(description = "Marca do veículo (sem veiculoId)") @QueryParam("marca") String marca,
+            @Parameter(description = "Modelo do veículo (sem veiculoId)") @QueryParam("modelo") String modelo,
+            @Parameter(description = "Ano do veículo (sem veiculoId)") @QueryParam("ano") Integer ano,
+            @Parameter(description = "Somente peças com quantidade disponível") @QueryParam("apenasEmEstoque") @DefaultValue("true") boolean apenasEmEstoque) {
+        try {
+            List<Peca> pecas = veiculoId != null
+                    ? pecaService.listarCompativeisComVeiculo(veiculoId, apenasEmEstoque)
+                    : pecaService.listarCompativeis(marca, modelo, ano, apenasEmEstoque);
+            return Response.ok(pecas).build();
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("não encontrado")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            }
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                    .build();
         }
-        
-        return Response.ok(pecas).build();
     }
 
     @GET
@@ -113,10 +212,83 @@ public class PecaResource {
         }
     }
 
+    @GET
+    @Path("/{id}/estoque/saldo")
+    @Operation(summary = "Saldo da peça em uma data", description = "Calcula o saldo de estoque da peça em uma data pelo livro de estoque (último saldo consolidado mais os lançamentos posteriores)")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Saldo calculado",
+            content = @Content(schema = @Schema(implementation = SaldoEstoqueDTO.class))),
+        @APIResponse(responseCode = "400", description = "Data inválida"),
+        @APIResponse(responseCode = "404", description = "Peça não encontrada")
+    })
+    public Response consultarSaldoEstoque(
+            @Parameter(description = "ID da peça") @PathParam("id") Long id,
+            @Parameter(description = "Data (yyyy-MM-dd, considera o fim do dia) ou data e hora ISO; padrão: agora") @QueryParam("data") String data) {
+        try {
+            LocalDateTime momento = converterData(data, true);
+            if (momento == null) {
+                momento = LocalDateTime.now();
+            }
+            long quantidade = pecaService.consultarSaldoEm(id, momento);
+            return Response.ok(new SaldoEstoqueDTO(id, momento, quantidade)).build();
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("não encontrad")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            }
+        }
+    }
+
+    @GET
+    @Path("/{id}/estoque/movimentacoes")
+    @Operation(summary = "Movimentações da peça", description = "Lista os lançamentos do livro de estoque da peça no período")
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "Lançamentos do período",
+            content = @Content(schema = @Schema(implementation = MovimentacaoEstoque.class))),
+        @APIResponse(responseCode = "400", description = "Período inválido"),
+        @APIResponse(responseCode = "404", description = "Peça não encontrada")
+    })
+    public Response listarMovimentacoesEstoque(
+            @Parameter(description = "ID da peça") @PathParam("id") Long id,
+            @Parameter(description = "Data inicial", required = true) @QueryParam("dataInicial") String dataInicial,
+            @Parameter(description = "Data final; padrão: agora") @QueryParam("dataFinal") String dataFinal) {
+        try {
+            LocalDateTime inicio = converterData(dataInicial, false);
+            LocalDateTime fim = converterData(dataFinal, true);
+            if (inicio == null) {
+                throw new RuntimeException("Informe dataInicial");
+            }
+            if (fim == null) {
+                fim = LocalDateTime.now();
+            }
+            if (inicio.isAfter(fim)) {
+                throw new RuntimeException("Data inicial deve ser anterior à data final");
+            }
+            List<MovimentacaoEstoque> movimentacoes = pecaService.listarMovimentacoes(id, inicio, fim);
+            return Response.ok(movimentacoes).build();
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("não encontrad")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                        .build();
+            }
+        }
+    }
+
     @PUT
     @Path("/{id}")
     @Transactional
-    @Operation(summary = "Atualizar peça", description = "Atualiza uma peça existente")
+    @Operation(summary = "Atualizar peça", description = "Atualiza os dados cadastrais de uma peça existente. "
+            + "A quantidade em estoque enviada é ignorada: o saldo muda apenas pelas movimentações de estoque")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Peça atualizada com sucesso",
             content = @Content(schema = @Schema(implementation = Peca.class))),
@@ -162,4 +334,22 @@ public class PecaResource {
                     .build();
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Aceita data (yyyy-MM-dd) ou data e hora ISO; datas finais sem hora incluem o dia inteiro
+     */
+    private LocalDateTime converterData(String data, boolean fimDoDia) {
+        if (data == null || data.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            if (data.contains("T")) {
+                return LocalDateTime.parse(data.trim());
+            }
+            LocalDate dia = LocalDate.parse(data.trim());
+            return fimDoDia ? dia.atTime(LocalTime.MAX) : dia.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Data inválida: " + data);
+        }
+    }
+}
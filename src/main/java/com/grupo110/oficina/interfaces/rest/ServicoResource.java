@@ -2,6 +2,8 @@ package com.grupo110.oficina.interfaces.rest;
 
 import com.grupo110.oficina.application.service.ServicoService;
 import com.grupo110.oficina.domain.model.Servico;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -25,6 +27,7 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
 @Tag(name = "Serviços", description = "Operações para gerenciamento de serviços")
+@RunOnVirtualThread
 public class ServicoResource {
 
     @Inject
@@ -53,12 +56,14 @@ public class ServicoResource {
     }
 
     @GET
-    @Operation(summary = "Listar serviços", description = "Lista todos os serviços com filtros e ordenação opcionais")
+    @Operation(summary = "Listar serviços", description = "Lista serviços com filtros, ordenação e paginação no banco de dados")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Lista de serviços retornada com sucesso",
             content = @Content(schema = @Schema(implementation = Servico.class)))
     })
     public Response listarServicos(
+            @Parameter(description = "Número da página") @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Tamanho da página") @QueryParam("size") @DefaultValue("20") int size,
             @Parameter(description = "Filtrar por nome") @QueryParam("nome") String nome,
             @Parameter(description = "Filtrar por categoria") @QueryParam("categoria") String categoria,
             @Parameter(description = "Filtrar por valor base mínimo") @QueryParam("valorMin") BigDecimal valorMin,
@@ -68,70 +73,14 @@ public class ServicoResource {
             @Parameter(description = "Filtrar por ativo") @QueryParam("ativo") Boolean ativo,
             @Parameter(description = "Ordenar por") @QueryParam("ordenarPor") String ordenarPor) {
         
-        List<Servico> servicos = servicoService.listarTodos();
+        Pagina<Servico> servicos = servicoService.listarPaginado(nome, categoria, valorMin, valorMax,
+                tempoMin, tempoMax, ativo, ordenarPor, page, size);
         
-        // Aplicar filtros se fornecidos
-        if (nome != null && !nome.trim().isEmpty()) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getNome().toLowerCase().contains(nome.toLowerCase()))
-                    .toList();
-        }
-        
-        if (categoria != null && !categoria.trim().isEmpty()) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getCategoria() != null && s.getCategoria().name().toLowerCase().contains(categoria.toLowerCase()))
-                    .toList();
-        }
-        
-        if (valorMin != null) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getValorBase() != null && s.getValorBase().compareTo(valorMin) >= 0)
-                    .toList();
-        }
-        
-        if (valorMax != null) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getValorBase() != null && s.getValorBase().compareTo(valorMax) <= 0)
-                    .toList();
-        }
-        
-        if (tempoMin != null) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getTempoMedioExecucao() != null && s.getTempoMedioExecucao() >= tempoMin)
-                    .toList();
-        }
-        
-        if (tempoMax != null) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getTempoMedioExecucao() != null && s.getTempoMedioExecucao() <= tempoMax)
-                    .toList();
-        }
-        
-        if (ativo != null) {
-            servicos = servicos.stream()
-                    .filter(s -> s.getAtivo().equals(ativo))
-                    .toList();
-        }
-        
-        // Aplicar ordenação se fornecida
-        if (ordenarPor != null && !ordenarPor.trim().isEmpty()) {
-            switch (ordenarPor.toLowerCase()) {
-                case "nome":
-                    servicos = servicoService.listarOrdenadosPorNome();
-                    break;
-                case "valor_asc":
-                    servicos = servicoService.listarOrdenadosPorValorBaseAsc();
-                    break;
-                case "valor_desc":
-                    servicos = servicoService.listarOrdenadosPorValorBaseDesc();
-                    break;
-                case "categoria_nome":
-                    servicos = servicoService.listarOrdenadosPorCategoriaENome();
-                    break;
-            }
-        }
-        
-        return Response.ok(servicos).build();
+        return Response.ok(servicos.getItens())
+                .header("X-Total-Count", servicos.getTotal())
+                .header("X-Page", servicos.getPagina())
+                .header("X-Size", servicos.getTamanho())
+                .build();
     }
 
     @GET
@@ -343,7 +292,7 @@ public class ServicoResource {
     })
     public Response obterEstatisticas() {
         long totalAtivos = servicoService.contarAtivos();
-        long totalGeral = servicoService.listarTodos().size();
+        long totalGeral = servicoService.contarTodos();
         
         String estatisticas = String.format(
             "{\"total_servicos\": %d, \"servicos_ativos\": %d, \"servicos_inativos\": %d}",
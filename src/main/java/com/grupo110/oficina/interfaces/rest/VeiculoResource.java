@@ -2,6 +2,8 @@ package com.grupo110.oficina.interfaces.rest;
 
 import com.grupo110.oficina.application.service.VeiculoService;
 import com.grupo110.oficina.domain.model.Veiculo;
+import com.grupo110.oficina.infrastructure.repository.Pagina;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -24,6 +26,7 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"ADMIN", "GERENTE", "ATENDENTE", "MECANICO"})
 @Tag(name = "Veículos", description = "Operações para gerenciamento de veículos")
+@RunOnVirtualThread
 public class VeiculoResource {
 
     @Inject
@@ -52,52 +55,27 @@ public class VeiculoResource {
     }
 
     @GET
-    @Operation(summary = "Listar veículos", description = "Lista todos os veículos com filtros opcionais")
+    @Operation(summary = "Listar veículos", description = "Lista veículos com filtros opcionais e paginação no banco de dados")
     @APIResponses(value = {
         @APIResponse(responseCode = "200", description = "Lista de veículos retornada com sucesso",
             content = @Content(schema = @Schema(implementation = Veiculo.class)))
     })
     public Response listarVeiculos(
+            @Parameter(description = "Número da página") @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Tamanho da página") @QueryParam("size") @DefaultValue("20") int size,
             @Parameter(description = "Filtrar por placa") @QueryParam("placa") String placa,
             @Parameter(description = "Filtrar por marca") @QueryParam("marca") String marca,
             @Parameter(description = "Filtrar por modelo") @QueryParam("modelo") String modelo,
             @Parameter(description = "Filtrar por cliente ID") @QueryParam("clienteId") Long clienteId,
             @Parameter(description = "Filtrar por ativo") @QueryParam("ativo") Boolean ativo) {
         
-        List<Veiculo> veiculos = veiculoService.listarTodos();
+        Pagina<Veiculo> veiculos = veiculoService.listarPaginado(placa, marca, modelo, clienteId, ativo, page, size);
         
-        // Aplicar filtros se fornecidos
-        if (placa != null && !placa.trim().isEmpty()) {
-            veiculos = veiculos.stream()
-                    .filter(v -> v.getPlaca().toUpperCase().contains(placa.toUpperCase()))
-                    .toList();
-        }
-        
-        if (marca != null && !marca.trim().isEmpty()) {
-            veiculos = veiculos.stream()
-                    .filter(v -> v.getMarca().toLowerCase().contains(marca.toLowerCase()))
-                    .toList();
-        }
-        
-        if (modelo != null && !modelo.trim().isEmpty()) {
-            veiculos = veiculos.stream()
-                    .filter(v -> v.getModelo().toLowerCase().contains(modelo.toLowerCase()))
-                    .toList();
-        }
-        
-        if (clienteId != null) {
-            veiculos = veiculos.stream()
-                    .filter(v -> v.getCliente().getId().equals(clienteId))
-                    .toList();
-        }
-        
-        if (ativo != null) {
-            veiculos = veiculos.stream()
-                    .filter(v -> v.getAtivo().equals(ativo))
-                    .toList();
-        }
-        
-        return Response.ok(veiculos).build();
+        return Response.ok(veiculos.getItens())
+                .header("X-Total-Count", veiculos.getTotal())
+                .header("X-Page", veiculos.getPagina())
+                .header("X-Size", veiculos.getTamanho())
+                .build();
     }
 
     @GET
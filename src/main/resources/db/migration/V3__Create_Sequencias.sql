@@ -0,0 +1,9 @@
+-- V3__Create_Sequencias.sql - MySQL
+-- Sequências nomeadas alocadas em blocos pela aplicação (numeração de OS)
+
+CREATE TABLE sequencias (
+    nome VARCHAR(50) PRIMARY KEY,
+    proximo_valor BIGINT NOT NULL
+);
+
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('numero_os', 1);
@@ -0,0 +1,26 @@
+-- V4__Create_Indices_Compostos.sql - MySQL
+-- Índices compostos derivados das consultas do OrdemServicoRepository e do HistoricoStatusRepository.
+-- O MySQL não tem índice parcial (WHERE status = ...); o status entra como coluna do índice composto.
+
+-- cliente.id = ?1 and status = ?2 / count por cliente
+CREATE INDEX idx_ordens_servico_cliente_status ON ordens_servico(cliente_id, status);
+
+-- cliente.id = ?1 order by dataRecebimento desc (e a paginação por cursor filtrada por cliente)
+CREATE INDEX idx_ordens_servico_cliente_recebimento ON ordens_servico(cliente_id, data_recebimento, id);
+
+-- veiculo.id = ?1 and status = ?2
+CREATE INDEX idx_ordens_servico_veiculo_status ON ordens_servico(veiculo_id, status);
+
+-- status = EM_EXECUCAO and dataInicioExecucao < ?2; o prefixo (status) atende findByStatus e o group by status
+CREATE INDEX idx_ordens_servico_status_inicio ON ordens_servico(status, data_inicio_execucao);
+
+-- prazoEntrega < ?1 and status ...: faixa em prazo_entrega e o status avaliado no próprio índice
+CREATE INDEX idx_ordens_servico_prazo_status ON ordens_servico(prazo_entrega, status);
+
+-- ordemServico.id = ?1 order by dataAlteracao desc (e os filtros por OS com período)
+CREATE INDEX idx_historico_status_ordem_data ON historico_status(ordem_servico_id, data_alteracao);
+
+-- Índices de coluna única agora cobertos pelo prefixo dos compostos acima
+DROP INDEX idx_ordens_servico_status ON ordens_servico;
+DROP INDEX idx_ordens_servico_cliente ON ordens_servico;
+DROP INDEX idx_ordens_servico_veiculo ON ordens_servico;
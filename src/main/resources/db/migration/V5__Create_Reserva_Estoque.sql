@@ -0,0 +1,23 @@
+-- V5__Create_Reserva_Estoque.sql - MySQL
+-- Controle de concorrência do estoque de peças e reserva de peças por ordem de serviço
+
+-- versao: bloqueio otimista (@Version) das alterações feitas pela entidade
+-- quantidade_reservada: parte do estoque comprometida com ordens em execução
+ALTER TABLE pecas
+    ADD COLUMN versao BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN quantidade_reservada INTEGER NOT NULL DEFAULT 0,
+    ADD CONSTRAINT chk_pecas_estoque CHECK (quantidade_estoque >= 0),
+    ADD CONSTRAINT chk_pecas_reserva CHECK (quantidade_reservada >= 0 AND quantidade_reservada <= quantidade_estoque);
+
+-- Situação da reserva de cada item (NULL enquanto a ordem não foi aprovada)
+ALTER TABLE itens_peca
+    ADD COLUMN situacao_reserva VARCHAR(20) NULL;
+
+-- Status usados pela aplicação (inclui CANCELADA, que libera as reservas)
+ALTER TABLE ordens_servico
+    MODIFY status ENUM('RECEBIDA', 'EM_DIAGNOSTICO', 'AGUARDANDO_APROVACAO', 'APROVADA', 'EM_EXECUCAO',
+                       'AGUARDANDO_PECAS', 'FINALIZADA', 'ENTREGUE', 'CANCELADA');
+
+ALTER TABLE historico_status
+    MODIFY status ENUM('RECEBIDA', 'EM_DIAGNOSTICO', 'AGUARDANDO_APROVACAO', 'APROVADA', 'EM_EXECUCAO',
+                       'AGUARDANDO_PECAS', 'FINALIZADA', 'ENTREGUE', 'CANCELADA');
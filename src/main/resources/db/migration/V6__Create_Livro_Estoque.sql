@@ -0,0 +1,35 @@
+-- V6__Create_Livro_Estoque.sql - MySQL
+-- Livro de estoque: lançamentos só inseridos e saldos consolidados periodicamente
+
+-- IDs alocados pela aplicação em faixas (tabela sequencias), o que permite inserir em lote
+CREATE TABLE movimentacoes_estoque (
+    id BIGINT PRIMARY KEY,
+    peca_id BIGINT NOT NULL,
+    tipo ENUM('ENTRADA', 'SAIDA', 'AJUSTE', 'CONSUMO_OS') NOT NULL,
+    quantidade INTEGER NOT NULL,
+    ordem_servico_id BIGINT NULL,
+    data_movimentacao DATETIME(6) NOT NULL,
+    FOREIGN KEY (peca_id) REFERENCES pecas(id)
+);
+
+-- Lançamentos de uma peça num intervalo (saldo em uma data) e de todas as peças num intervalo (consolidação)
+CREATE INDEX idx_movimentacoes_peca_data ON movimentacoes_estoque(peca_id, data_movimentacao);
+CREATE INDEX idx_movimentacoes_data ON movimentacoes_estoque(data_movimentacao);
+
+CREATE TABLE saldos_estoque (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    peca_id BIGINT NOT NULL,
+    data_corte DATETIME(6) NOT NULL,
+    quantidade INTEGER NOT NULL,
+    FOREIGN KEY (peca_id) REFERENCES pecas(id),
+    UNIQUE KEY uk_saldos_peca_corte (peca_id, data_corte)
+);
+
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('movimentacao_estoque', 1);
+
+-- Contador das consolidações de saldo; a linha bloqueada serializa a consolidação entre instâncias
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('consolidacao_estoque', 1);
+
+-- Saldo inicial: o estoque atual de cada peça é o saldo anterior a qualquer lançamento do livro
+INSERT INTO saldos_estoque (peca_id, data_corte, quantidade)
+SELECT id, '1970-01-01 00:00:00', quantidade_estoque FROM pecas;
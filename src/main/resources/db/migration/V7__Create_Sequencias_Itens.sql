@@ -0,0 +1,6 @@
+-- V7__Create_Sequencias_Itens.sql - MySQL
+-- IDs dos itens de OS alocados pela aplicação em faixas (tabela sequencias), o que permite
+-- inserir em lote; as faixas começam depois dos IDs já gerados pelo AUTO_INCREMENT
+
+INSERT INTO sequencias (nome, proximo_valor) SELECT 'item_servico', COALESCE(MAX(id), 0) + 1 FROM itens_servico;
+INSERT INTO sequencias (nome, proximo_valor) SELECT 'item_peca', COALESCE(MAX(id), 0) + 1 FROM itens_peca;
@@ -0,0 +1,19 @@
+-- V8__Create_Refresh_Tokens.sql - MySQL
+-- Refresh tokens compartilhados pelas instâncias da aplicação; só o hash SHA-256 do token é gravado
+CREATE TABLE refresh_tokens (
+    token_hash CHAR(64) PRIMARY KEY,
+    familia CHAR(64) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    username VARCHAR(100) NOT NULL,
+    roles VARCHAR(255) NOT NULL,
+    expira_em DATETIME(6) NOT NULL,
+    rotacionado BOOLEAN NOT NULL DEFAULT FALSE,
+    FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE
+);
+
+-- Revogação da família (reuso de token) e do usuário (alteração de perfil ou situação)
+CREATE INDEX idx_refresh_tokens_familia ON refresh_tokens(familia, rotacionado);
+CREATE INDEX idx_refresh_tokens_usuario ON refresh_tokens(usuario_id, rotacionado);
+
+-- Purga periódica dos expirados
+CREATE INDEX idx_refresh_tokens_expira ON refresh_tokens(expira_em);
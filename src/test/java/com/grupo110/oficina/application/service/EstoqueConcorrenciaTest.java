@@ -0,0 +1,162 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.domain.model.ItemPeca;
+import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.infrastructure.repository.PecaRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reservas, liberações, entradas e saídas da mesma peça em paralelo. O estoque nunca fica
+ * negativo nem abaixo do reservado, e no fim estoque e reserva batem exatamente com as
+ * movimentações que tiveram sucesso.
+ */
+@QuarkusTest
+class EstoqueConcorrenciaTest {
+
+    private static final long PECA_ID = 900_001L;
+    private static final int ESTOQUE_INICIAL = 200;
+    private static final int THREADS = 16;
+    private static final int OPERACOES_POR_THREAD = 200;
+
+    @Inject
+    PecaRepository pecaRepository;
+
+    @Inject
+    PecaService pecaService;
+
+    @Inject
+    ReservaEstoqueService reservaEstoqueService;
+
+    @Test
+    void movimentacoesConcorrentesConservamEstoqueEReserva() throws Exception {
+        criarPeca();
+
+        Queue<Integer> reservasAtivas = new ConcurrentLinkedQueue<>();
+        AtomicInteger adicionado = new AtomicInteger();
+        AtomicInteger removido = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        List<String> violacoes = new ArrayList<>();
+        AtomicBoolean executando = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    movimentar(reservasAtivas, adicionado, removido, recusadas);
+                }
+                return null;
+            }));
+        }
+        // Confere as invariantes no banco enquanto as movimentações acontecem
+        Future<?> amostragem = executor.submit(() -> {
+            while (executando.get()) {
+                Peca peca = lerPeca();
+                if (peca.getQuantidadeEstoque() < 0 || peca.getQuantidadeReservada() < 0
+                        || peca.getQuantidadeReservada() > peca.getQuantidadeEstoque()) {
+                    synchronized (violacoes) {
+                        violacoes.add("estoque " + peca.getQuantidadeEstoque() + ", reservada " + peca.getQuantidadeReservada());
+                    }
+                }
+            }
+            return null;
+        });
+
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(2, TimeUnit.MINUTES);
+        }
+        executando.set(false);
+        amostragem.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        Peca peca = lerPeca();
+        int reservadoEsperado = reservasAtivas.stream().mapToInt(Integer::intValue).sum();
+        assertTrue(violacoes.isEmpty(), () -> "Invariantes violadas durante a execução: " + violacoes);
+        assertEquals(ESTOQUE_INICIAL + adicionado.get() - removido.get(), peca.getQuantidadeEstoque());
+        assertEquals(reservadoEsperado, peca.getQuantidadeReservada());
+        assertTrue(peca.getQuantidadeReservada() <= peca.getQuantidadeEstoque());
+        assertTrue(recusadas.get() > 0, "A carga deveria esgotar o disponível em algum momento");
+    }
+
+    /**
+     * Uma movimentação aleatória; recusas por falta de saldo são esperadas, qualquer outra falha não
+     */
+    private void movimentar(Queue<Integer> reservasAtivas, AtomicInteger adicionado, AtomicInteger removido,
+                            AtomicInteger recusadas) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int quantidade = aleatorio.nextInt(1, 6);
+        try {
+            switch (aleatorio.nextInt(4)) {
+                case 0 -> {
+                    reservaEstoqueService.reservar(List.of(item(quantidade, null)));
+                    reservasAtivas.add(quantidade);
+                }
+                case 1 -> {
+                    Integer reservada = reservasAtivas.poll();
+                    if (reservada != null) {
+                        reservaEstoqueService.liberar(List.of(item(reservada, ItemPeca.SituacaoReserva.RESERVADA)));
+                    }
+                }
+                case 2 -> {
+                    pecaService.removerEstoque(PECA_ID, quantidade);
+                    removido.addAndGet(quantidade);
+                }
+                default -> {
+                    pecaService.adicionarEstoque(PECA_ID, quantidade);
+                    adicionado.addAndGet(quantidade);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (e.getMessage() == null || !e.getMessage().startsWith("Estoque insuficiente")) {
+                throw e;
+            }
+            recusadas.incrementAndGet();
+        }
+    }
+
+    private static ItemPeca item(int quantidade, ItemPeca.SituacaoReserva situacao) {
+        Peca peca = new Peca();
+        peca.setId(PECA_ID);
+        peca.setNome("Pastilha de teste");
+        ItemPeca item = new ItemPeca(null, peca, quantidade, BigDecimal.ONE);
+        item.setSituacaoReserva(situacao);
+        return item;
+    }
+
+    private void criarPeca() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Peca peca = new Peca("Pastilha de teste", "TESTE-CONCORRENCIA", new BigDecimal("10.00"), new BigDecimal("20.00"));
+            peca.setId(PECA_ID);
+            peca.setQuantidadeEstoque(ESTOQUE_INICIAL);
+            peca.setQuantidadeMinima(0);
+            pecaRepository.persist(peca);
+        });
+    }
+
+    private Peca lerPeca() {
+        return QuarkusTransaction.requiringNew().call(() -> pecaRepository.findById(PECA_ID));
+    }
+}
@@ -0,0 +1,92 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.infrastructure.repository.SequenciaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vazão do gerador de números de OS com 1 e 8 threads disputando a mesma faixa.
+ * A reserva de faixa no banco é simulada com uma espera de latenciaBancoMicros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeradorNumeroOSBenchmark {
+
+    @Param({"100", "1000"})
+    int tamanhoBloco;
+
+    @Param({"500"})
+    long latenciaBancoMicros;
+
+    private GeradorNumeroOS gerador;
+
+    private FaixaSequencia faixa;
+
+    @Setup
+    public void preparar() {
+        SequenciaRepository repositorio = new SequenciaEmMemoria(latenciaBancoMicros);
+        gerador = new GeradorNumeroOS();
+        gerador.sequenciaRepository = repositorio;
+        gerador.tamanhoBloco = tamanhoBloco;
+        gerador.iniciar();
+        faixa = new FaixaSequencia(repositorio, "benchmark", tamanhoBloco);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String numeroUmaThread() {
+        return gerador.proximoNumero();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String numeroOitoThreads() {
+        return gerador.proximoNumero();
+    }
+
+    /**
+     * Só a alocação do valor, sem a formatação do número
+     */
+    @Benchmark
+    @Threads(8)
+    public long faixaOitoThreads() {
+        return faixa.proximo();
+    }
+
+    /**
+     * Tabela de sequências em memória com a latência de uma ida ao banco
+     */
+    static final class SequenciaEmMemoria extends SequenciaRepository {
+
+        private final AtomicLong proximoValor = new AtomicLong(1);
+        private final long latenciaMicros;
+
+        SequenciaEmMemoria(long latenciaMicros) {
+            this.latenciaMicros = latenciaMicros;
+        }
+
+        @Override
+        public long reservarBloco(String nome, int tamanho) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latenciaMicros));
+            return proximoValor.getAndAdd(tamanho);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.domain.model.Peca;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da busca textual sobre um catálogo sintético de 1 milhão de peças (meta: p99 abaixo de 10 ms).
+ * O modo SampleTime informa os percentis; as consultas cobrem prefixos de uma e duas letras, termos
+ * exatos, erros de digitação e consultas de vários termos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndiceBuscaPecaBenchmark {
+
+    static final int PECAS = 1_000_000;
+
+    private static final String[] NOMES = {"Filtro", "Pastilha", "Disco", "Vela", "Correia", "Amortecedor",
+            "Bomba", "Sensor", "Junta", "Rolamento", "Bobina", "Radiador", "Embreagem", "Lâmpada", "Palheta",
+            "Coxim", "Terminal", "Bieleta", "Mangueira", "Válvula", "Retentor", "Tensor", "Cabo", "Bucha"};
+    private static final String[] COMPLEMENTOS = {"de óleo", "de ar", "de combustível", "de cabine", "de freio",
+            "dianteiro", "traseiro", "dentada", "de ignição", "d'água", "de temperatura", "do cabeçote",
+            "de direção", "do motor", "de câmbio", "esquerdo", "direito", "superior", "inferior", "auxiliar"};
+    private static final String[] FABRICANTES = {"Bosch", "Mahle", "Fras-le", "Cofap", "Monroe", "NGK", "Gates",
+            "SKF", "Valeo", "Magneti Marelli", "TRW", "Nakata", "Tecfil", "Wega", "Sabó", "Dayco"};
+    private static final String[][] VEICULOS = {{"Fiat", "Uno"}, {"Fiat", "Palio"}, {"Fiat", "Strada"},
+            {"Volkswagen", "Gol"}, {"Volkswagen", "Polo"}, {"Volkswagen", "Saveiro"}, {"Chevrolet", "Onix"},
+            {"Chevrolet", "Celta"}, {"Chevrolet", "S10"}, {"Ford", "Ka"}, {"Ford", "Fiesta"}, {"Ford", "Ranger"},
+            {"Renault", "Sandero"}, {"Renault", "Logan"}, {"Toyota", "Corolla"}, {"Toyota", "Hilux"},
+            {"Honda", "Civic"}, {"Honda", "Fit"}, {"Hyundai", "HB20"}, {"Jeep", "Renegade"}};
+
+    @Param({"f", "fi", "filtro", "fitlro", "filtro oleo", "pastilha freio bosch", "amortecedor dianteiro gol",
+            "000123"})
+    String consulta;
+
+    private IndiceBuscaPecaService indice;
+
+    @Setup
+    public void preparar() {
+        indice = new IndiceBuscaPecaService();
+        indice.carregar(catalogo(PECAS));
+    }
+
+    @Benchmark
+    public List<Long> buscar() {
+        return indice.buscar(consulta, 20);
+    }
+
+    /**
+     * Peças geradas sob demanda (só o índice fica em memória), sempre as mesmas para a mesma quantidade
+     */
+    static Iterator<Peca> catalogo(int quantidade) {
+        Random aleatorio = new Random(42);
+        return new Iterator<>() {
+            private int gerada;
+
+            @Override
+            public boolean hasNext() {
+                return gerada < quantidade;
+            }
+
+            @Override
+            public Peca next() {
+                long id = ++gerada;
+                String nome = NOMES[aleatorio.nextInt(NOMES.length)];
+                String[] veiculo = VEICULOS[aleatorio.nextInt(VEICULOS.length)];
+                Peca peca = new Peca(nome + " " + COMPLEMENTOS[aleatorio.nextInt(COMPLEMENTOS.length)],
+                        String.format("%s-%06d", nome.substring(0, 3).toUpperCase(), id),
+                        BigDecimal.TEN, BigDecimal.TEN);
+                peca.setId(id);
+                peca.setDescricao("Referência " + aleatorio.nextInt(100_000) + " "
+                        + COMPLEMENTOS[aleatorio.nextInt(COMPLEMENTOS.length)]);
+                peca.setFabricante(FABRICANTES[aleatorio.nextInt(FABRICANTES.length)]);
+                peca.setMarcaVeiculo(veiculo[0]);
+                peca.setModeloVeiculo(veiculo[1]);
+                return peca;
+            }
+        };
+    }
+}
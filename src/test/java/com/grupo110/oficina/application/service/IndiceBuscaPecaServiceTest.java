@@ -0,0 +1,148 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.domain.model.Peca;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Busca textual sobre um catálogo pequeno carregado sem banco: casamento exato, por prefixo e com
+ * erros de digitação, vários termos, ordem do resultado, limite e atualização do índice.
+ * Pontuação por termo: exato 3, prefixo 2, aproximado 1; empate pelo menor ID.
+ */
+class IndiceBuscaPecaServiceTest {
+
+    private IndiceBuscaPecaService indice;
+
+    @BeforeEach
+    void carregarCatalogo() {
+        indice = new IndiceBuscaPecaService();
+        indice.carregar(catalogo().iterator());
+    }
+
+    @Test
+    void termoExato() {
+        assertEquals(List.of(4L), indice.buscar("pastilha", 10));
+        assertEquals(List.of(3L, 4L), indice.buscar("gol", 10));
+    }
+
+    @Test
+    void acentosEMaiusculasSaoIgnorados() {
+        assertEquals(List.of(2L), indice.buscar("ÓLEO", 10));
+        assertEquals(List.of(1L), indice.buscar("combustivel", 10));
+    }
+
+    @Test
+    void prefixo() {
+        assertEquals(List.of(4L), indice.buscar("past", 10));
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("filt", 10));
+        assertEquals(List.of(1L, 4L), indice.buscar("p", 10));
+    }
+
+    @Test
+    void exatoVemAntesDoPrefixoEEmpateSaiPeloMenorId() {
+        // filtro (exato) em 2 e 3, filtros (prefixo) em 1
+        assertEquals(List.of(2L, 3L, 1L), indice.buscar("filtro", 10));
+    }
+
+    @Test
+    void umErroDeDigitacao() {
+        assertEquals(List.of(2L, 3L), indice.buscar("filtri", 10));
+        assertEquals(List.of(2L, 3L), indice.buscar("fitlro", 10));
+        assertEquals(List.of(5L), indice.buscar("disko", 10));
+    }
+
+    @Test
+    void doisErrosSoAPartirDeOitoLetras() {
+        assertEquals(List.of(6L), indice.buscar("amortcedr", 10));
+        assertEquals(List.of(), indice.buscar("filtrxx", 10));
+        assertEquals(List.of(), indice.buscar("amrtcedr", 10));
+    }
+
+    @Test
+    void termosCurtosNaoTemCasamentoAproximado() {
+        assertEquals(List.of(), indice.buscar("gil", 10));
+    }
+
+    @Test
+    void todosOsTermosPrecisamCasar() {
+        assertEquals(List.of(4L), indice.buscar("pastilha gol", 10));
+        assertEquals(List.of(), indice.buscar("pastilha uno", 10));
+        // 2: filtro (3) + fiat (3); 1: filtros (2) + fiat (3)
+        assertEquals(List.of(2L, 1L), indice.buscar("filtro fiat", 10));
+    }
+
+    @Test
+    void codigoComOuSemSeparador() {
+        assertEquals(List.of(2L), indice.buscar("flt-002", 10));
+        // flt001 e flt003 estão a uma letra de flt002: entram depois, como erro de digitação
+        assertEquals(List.of(2L, 1L, 3L), indice.buscar("flt002", 10));
+        assertEquals(List.of(5L), indice.buscar("DSC005", 10));
+    }
+
+    @Test
+    void limiteCortaOResultado() {
+        assertEquals(List.of(4L), indice.buscar("freio", 1));
+        assertEquals(List.of(4L, 5L), indice.buscar("freio", 2));
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("de", 3));
+        assertEquals(List.of(2L), indice.buscar("filtro", 1));
+        assertEquals(List.of(), indice.buscar("filtro", 0));
+    }
+
+    @Test
+    void consultaVazia() {
+        assertEquals(List.of(), indice.buscar("  ", 10));
+        assertEquals(List.of(), indice.buscar(null, 10));
+    }
+
+    @Test
+    void alteracaoDaPecaTiraOsTermosAntigos() {
+        Peca renomeada = peca(2, "Elemento de óleo", "FLT-002", "Mahle", "Fiat", "Uno");
+        indice.aoAlterarPeca(new PecaAlteradaEvento(renomeada));
+
+        assertEquals(List.of(3L, 1L), indice.buscar("filtro", 10));
+        assertEquals(List.of(3L), indice.buscar("fitlro", 10));
+        assertEquals(List.of(2L), indice.buscar("elemento", 10));
+        assertEquals(List.of(2L), indice.buscar("oleo", 10));
+    }
+
+    @Test
+    void recargaSubstituiOIndice() {
+        List<Peca> semFiltroDeAr = catalogo().stream().filter(peca -> peca.getId() != 3L).toList();
+        indice.carregar(semFiltroDeAr.iterator());
+
+        assertEquals(List.of(2L, 1L), indice.buscar("filtro", 10));
+        assertEquals(List.of(), indice.buscar("tecfil", 10));
+        assertEquals(List.of(4L), indice.buscar("gol", 10));
+    }
+
+    @Test
+    void sugestoesPelaFrequencia() {
+        assertEquals(List.of("filtro", "filtros"), indice.sugerir("fil", 10));
+        assertEquals(List.of("freio"), indice.sugerir("pastilha fr", 10));
+    }
+
+    private static List<Peca> catalogo() {
+        return List.of(
+                peca(1, "Filtros de combustível", "FLT-001", "Bosch", "Fiat", "Palio"),
+                peca(2, "Filtro de óleo", "FLT-002", "Mahle", "Fiat", "Uno"),
+                peca(3, "Filtro de ar", "FLT-003", "Tecfil", "Volkswagen", "Gol"),
+                peca(4, "Pastilha de freio", "PST-004", "Bosch", "Volkswagen", "Gol"),
+                peca(5, "Disco de freio", "DSC-005", "Bosch", "Ford", "Ka"),
+                peca(6, "Amortecedor dianteiro", "AMT-006", "Cofap", "Chevrolet", "Onix"));
+    }
+
+    private static Peca peca(long id, String nome, String codigo, String fabricante, String marca, String modelo) {
+        Peca peca = new Peca(nome, codigo, BigDecimal.TEN, BigDecimal.TEN);
+        peca.setId(id);
+        peca.setFabricante(fabricante);
+        peca.setMarcaVeiculo(marca);
+        peca.setModeloVeiculo(modelo);
+        return peca;
+    }
+}
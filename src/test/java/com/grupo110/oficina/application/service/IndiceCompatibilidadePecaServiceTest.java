@@ -0,0 +1,171 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.event.PecaAlteradaEvento;
+import com.grupo110.oficina.domain.model.Peca;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compatibilidade de peças com veículos sobre um catálogo carregado sem banco: anos abertos e
+ * limites da faixa, peças sem marca ou modelo valendo para qualquer veículo, filtros e alterações
+ * de peça que trocam a marca/modelo ou esvaziam uma chave.
+ */
+class IndiceCompatibilidadePecaServiceTest {
+
+    private IndiceCompatibilidadePecaService indice;
+
+    @BeforeEach
+    void carregarCatalogo() {
+        indice = new IndiceCompatibilidadePecaService();
+        indice.carregar(catalogo().iterator());
+    }
+
+    @Test
+    void anosDoLimiteDaFaixaEntram() {
+        assertEquals(List.of(1L, 2L, 4L, 5L), compativeis("Fiat", "Uno", 2010));
+        assertEquals(List.of(1L, 3L, 4L, 5L), compativeis("Fiat", "Uno", 2015));
+        assertEquals(List.of(2L, 4L, 5L), compativeis("Fiat", "Uno", 2009));
+        assertEquals(List.of(3L, 4L, 5L), compativeis("Fiat", "Uno", 2016));
+    }
+
+    @Test
+    void anoNaoInformadoDeixaAFaixaAberta() {
+        // 2: até 2012; 3: a partir de 2014; 5: sem anos
+        assertEquals(List.of(2L, 5L), compativeis("Fiat", "Uno", 1950));
+        assertEquals(List.of(3L, 5L), compativeis("Fiat", "Uno", 2100));
+    }
+
+    @Test
+    void marcaEModeloSaoNormalizados() {
+        // 8 foi cadastrada como " FIAT " / "uno "
+        assertEquals(List.of(1L, 2L, 4L, 5L, 8L), compativeis("Fiat", "Uno", 2011));
+        assertEquals(List.of(1L, 2L, 4L, 5L, 8L), compativeis("fiat", "UNO", 2011));
+    }
+
+    @Test
+    void pecaSemMarcaOuModeloValeParaQualquerVeiculo() {
+        // 4: qualquer Fiat; 5: qualquer veículo; 7: qualquer marca com modelo Uno
+        assertEquals(List.of(1L, 4L, 5L, 7L), compativeis("Fiat", "Uno", 2013));
+        assertEquals(List.of(4L, 5L), compativeis("Fiat", "Palio", 2013));
+        assertEquals(List.of(5L, 7L), compativeis("Ford", "Uno", 2013));
+        assertEquals(List.of(5L), compativeis("Ford", "Ka", 2013));
+    }
+
+    @Test
+    void filtrosNulosNaoRestringem() {
+        assertEquals(List.of(1L, 2L, 3L, 4L, 8L), ordenados(indice.filtrar("fiat", null, null)));
+        assertEquals(List.of(1L, 7L), ordenados(indice.filtrar(null, "Uno", 2013)));
+        assertEquals(List.of(6L), ordenados(indice.filtrar("Volkswagen", "Gol", 2012)));
+        assertEquals(List.of(3L, 5L), ordenados(indice.filtrar(null, null, 2100)));
+    }
+
+    @Test
+    void trocaDeMarcaMoveAPecaDeChave() {
+        indice.aoAlterarPeca(evento(peca(1, "Volkswagen", "Gol", 2010, 2015)));
+
+        assertEquals(List.of(2L, 4L, 5L), compativeis("Fiat", "Uno", 2012));
+        assertEquals(List.of(1L, 5L, 6L), compativeis("Volkswagen", "Gol", 2012));
+        assertEquals(List.of(2L, 3L, 4L, 8L), ordenados(indice.filtrar("fiat", null, null)));
+    }
+
+    @Test
+    void trocaDeAnoNaMesmaChave() {
+        indice.aoAlterarPeca(evento(peca(1, "Fiat", "Uno", 2016, 2018)));
+
+        assertEquals(List.of(2L, 4L, 5L), compativeis("Fiat", "Uno", 2010));
+        assertEquals(List.of(1L, 3L, 4L, 5L), compativeis("Fiat", "Uno", 2017));
+    }
+
+    @Test
+    void ultimaPecaDaChaveSaiDoIndice() {
+        // 6 é a única peça de Volkswagen Gol
+        indice.aoAlterarPeca(evento(peca(6, "Ford", "Ka", 2010, 2015)));
+
+        assertEquals(List.of(5L), compativeis("Volkswagen", "Gol", 2012));
+        assertEquals(List.of(), indice.filtrar("volkswagen", null, null));
+        assertEquals(List.of(5L, 6L), compativeis("Ford", "Ka", 2012));
+
+        // A chave volta a ser criada por uma nova peça
+        indice.aoAlterarPeca(evento(peca(9, "Volkswagen", "Gol", null, 2000)));
+        assertEquals(List.of(5L, 9L), compativeis("Volkswagen", "Gol", 1999));
+    }
+
+    @Test
+    void pecaNovaSemCarga() {
+        IndiceCompatibilidadePecaService vazio = new IndiceCompatibilidadePecaService();
+        assertEquals(List.of(), vazio.compativeis("Fiat", "Uno", 2012));
+
+        vazio.aoAlterarPeca(evento(peca(1, "Fiat", "Uno", 2010, 2015)));
+        assertEquals(List.of(1L), vazio.compativeis("Fiat", "Uno", 2012));
+    }
+
+    @Test
+    void arvoreGrandeConfereComVarreduraCompleta() {
+        Random aleatorio = new Random(7);
+        List<Peca> pecas = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            Integer inicio = aleatorio.nextInt(10) == 0 ? null : 1990 + aleatorio.nextInt(35);
+            Integer fim = aleatorio.nextInt(10) == 0 ? null : (inicio != null ? inicio : 1990) + aleatorio.nextInt(15);
+            pecas.add(peca(id, "Fiat", "Uno", inicio, fim));
+        }
+        indice.carregar(pecas.iterator());
+        // Metade das peças é reindexada uma a uma, passando pela inclusão incremental na árvore
+        for (int i = 0; i < pecas.size(); i += 2) {
+            Peca peca = pecas.get(i);
+            peca.setAnoFim(peca.getAnoFim() != null ? peca.getAnoFim() + 1 : null);
+            indice.aoAlterarPeca(evento(peca));
+        }
+
+        for (int ano = 1980; ano <= 2040; ano++) {
+            List<Long> esperados = new ArrayList<>();
+            for (Peca peca : pecas) {
+                if ((peca.getAnoInicio() == null || peca.getAnoInicio() <= ano)
+                        && (peca.getAnoFim() == null || peca.getAnoFim() >= ano)) {
+                    esperados.add(peca.getId());
+                }
+            }
+            assertEquals(esperados, compativeis("Fiat", "Uno", ano), "ano " + ano);
+        }
+    }
+
+    private List<Long> compativeis(String marca, String modelo, int ano) {
+        return ordenados(indice.compativeis(marca, modelo, ano));
+    }
+
+    private static List<Long> ordenados(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private static List<Peca> catalogo() {
+        return List.of(
+                peca(1, "Fiat", "Uno", 2010, 2015),
+                peca(2, "Fiat", "Uno", null, 2012),
+                peca(3, "Fiat", "Uno", 2014, null),
+                peca(4, "Fiat", null, 2000, 2020),
+                peca(5, null, null, null, null),
+                peca(6, "Volkswagen", "Gol", 2010, 2015),
+                peca(7, null, "Uno", 2013, 2013),
+                peca(8, " FIAT ", "uno ", 2011, 2011));
+    }
+
+    private static Peca peca(long id, String marca, String modelo, Integer anoInicio, Integer anoFim) {
+        Peca peca = new Peca("Peça " + id, "PC-" + id, BigDecimal.TEN, BigDecimal.TEN);
+        peca.setId(id);
+        peca.setMarcaVeiculo(marca);
+        peca.setModeloVeiculo(modelo);
+        peca.setAnoInicio(anoInicio);
+        peca.setAnoFim(anoFim);
+        return peca;
+    }
+
+    private static PecaAlteradaEvento evento(Peca peca) {
+        return new PecaAlteradaEvento(peca);
+    }
+}
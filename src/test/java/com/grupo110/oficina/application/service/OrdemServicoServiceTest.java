@@ -0,0 +1,257 @@
+package com.grupo110.oficina.application.service;
+
+import com.grupo110.oficina.application.dto.AdicionarItensRequest;
+import com.grupo110.oficina.application.dto.ItemPecaDTO;
+import com.grupo110.oficina.application.dto.ItemServicoDTO;
+import com.grupo110.oficina.application.dto.OrdemServicoDTO;
+import com.grupo110.oficina.domain.model.Cliente;
+import com.grupo110.oficina.domain.model.ItemPeca;
+import com.grupo110.oficina.domain.model.ItemServico;
+import com.grupo110.oficina.domain.model.OrdemServico;
+import com.grupo110.oficina.domain.model.Peca;
+import com.grupo110.oficina.domain.model.Servico;
+import com.grupo110.oficina.domain.model.Veiculo;
+import com.grupo110.oficina.infrastructure.repository.ItemPecaRepository;
+import com.grupo110.oficina.infrastructure.repository.ItemServicoRepository;
+import com.grupo110.oficina.infrastructure.repository.OrdemServicoRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Fluxo da ordem de serviço contra o banco: inclusão de itens em lote, transições de status e
+ * reserva de peças (reserva no início da execução, baixa na finalização, liberação no cancelamento)
+ */
+@QuarkusTest
+class OrdemServicoServiceTest {
+
+    private static final AtomicLong IDS = new AtomicLong(920_000L);
+
+    @Inject
+    OrdemServicoService ordemServicoService;
+
+    @Inject
+    PecaService pecaService;
+
+    @Inject
+    OrdemServicoRepository ordemServicoRepository;
+
+    @Inject
+    ItemServicoRepository itemServicoRepository;
+
+    @Inject
+    ItemPecaRepository itemPecaRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    private Long clienteId;
+    private Long veiculoId;
+
+    @BeforeEach
+    void criarClienteEVeiculo() {
+        long id = IDS.incrementAndGet();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Cliente cliente = new Cliente("Cliente de teste", String.format("%011d", id), Cliente.TipoDocumento.CPF);
+            cliente.setId(id);
+            entityManager.persist(cliente);
+            Veiculo veiculo = new Veiculo(String.format("TST%d%s%02d", id % 10, "A", id % 100), "Fiat", "Uno", 2015, cliente);
+            veiculo.setId(id);
+            entityManager.persist(veiculo);
+        });
+        clienteId = id;
+        veiculoId = id;
+    }
+
+    @Test
+    void adicionarItensGravaOsItensEAtualizaOsTotais() {
+        Long ordemId = criarOrdem(OrdemServico.StatusOrdemServico.RECEBIDA);
+        Long servicoId = criarServico(new BigDecimal("150.00"));
+        Long pecaId = criarPeca(10);
+
+        AdicionarItensRequest request = new AdicionarItensRequest();
+        request.setItensServico(List.of(itemServico(servicoId, 2), itemServico(servicoId, 1)));
+        request.setItensPeca(List.of(itemPeca(pecaId, 3)));
+        OrdemServicoDTO resumo = ordemServicoService.adicionarItens(ordemId, request);
+
+        // 3 x 150,00 de mão de obra e 3 x 20,00 de peças (preço de venda)
+        assertEquals(0, new BigDecimal("450.00").compareTo(resumo.getValorMaoObra()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(resumo.getValorPecas()));
+        assertEquals(0, new BigDecimal("510.00").compareTo(resumo.getValorTotal()));
+
+        List<ItemServico> itensServico = QuarkusTransaction.requiringNew()
+                .call(() -> itemServicoRepository.findByOrdemServicoId(ordemId));
+        List<ItemPeca> itensPeca = QuarkusTransaction.requiringNew()
+                .call(() -> itemPecaRepository.findByOrdemServicoId(ordemId));
+        assertEquals(2, itensServico.size());
+        assertEquals(1, itensPeca.size());
+        assertNotNull(itensServico.get(0).getId());
+        assertNotEquals(itensServico.get(0).getId(), itensServico.get(1).getId());
+
+        OrdemServico ordem = QuarkusTransaction.requiringNew().call(() -> ordemServicoRepository.findById(ordemId));
+        assertEquals(0, new BigDecimal("510.00").compareTo(ordem.getValorTotal()));
+    }
+
+    @Test
+    void iniciarExecucaoReservaEFinalizarDaBaixa() {
+        Long pecaId = criarPeca(10);
+        Long ordemId = criarOrdemComPeca(pecaId, 3);
+
+        ordemServicoService.iniciarExecucao(ordemId);
+        assertEstoque(pecaId, 10, 3);
+        assertSituacaoReserva(ordemId, ItemPeca.SituacaoReserva.RESERVADA);
+
+        ordemServicoService.finalizar(ordemId);
+        assertEstoque(pecaId, 7, 0);
+        assertSituacaoReserva(ordemId, ItemPeca.SituacaoReserva.BAIXADA);
+    }
+
+    @Test
+    void cancelarLiberaAReserva() {
+        Long pecaId = criarPeca(10);
+        Long ordemId = criarOrdemComPeca(pecaId, 4);
+
+        ordemServicoService.iniciarExecucao(ordemId);
+        assertEstoque(pecaId, 10, 4);
+
+        ordemServicoService.cancelar(ordemId);
+        assertEstoque(pecaId, 10, 0);
+        assertSituacaoReserva(ordemId, ItemPeca.SituacaoReserva.LIBERADA);
+        OrdemServico ordem = QuarkusTransaction.requiringNew().call(() -> ordemServicoRepository.findById(ordemId));
+        assertEquals(OrdemServico.StatusOrdemServico.CANCELADA, ordem.getStatus());
+    }
+
+    @Test
+    void estoqueInsuficienteNaoIniciaAExecucao() {
+        Long pecaId = criarPeca(2);
+        Long ordemId = criarOrdemComPeca(pecaId, 3);
+
+        assertThrows(RuntimeException.class, () -> ordemServicoService.iniciarExecucao(ordemId));
+        assertEstoque(pecaId, 2, 0);
+        OrdemServico ordem = QuarkusTransaction.requiringNew().call(() -> ordemServicoRepository.findById(ordemId));
+        assertEquals(OrdemServico.StatusOrdemServico.AGUARDANDO_APROVACAO, ordem.getStatus());
+    }
+
+    @Test
+    void ordemCanceladaNaoVoltaParaExecucao() {
+        Long pecaId = criarPeca(10);
+        Long ordemId = criarOrdemComPeca(pecaId, 3);
+        ordemServicoService.cancelar(ordemId);
+
+        assertThrows(RuntimeException.class, () -> ordemServicoService.iniciarExecucao(ordemId));
+        assertThrows(RuntimeException.class, () -> ordemServicoService.finalizar(ordemId));
+        assertThrows(RuntimeException.class, () -> ordemServicoService.entregar(ordemId));
+        assertEstoque(pecaId, 10, 0);
+    }
+
+    @Test
+    void transicoesForaDeOrdemSaoRecusadas() {
+        Long ordemId = criarOrdem(OrdemServico.StatusOrdemServico.RECEBIDA);
+
+        assertThrows(RuntimeException.class, () -> ordemServicoService.iniciarExecucao(ordemId));
+        assertThrows(RuntimeException.class, () -> ordemServicoService.finalizar(ordemId));
+        assertThrows(RuntimeException.class, () -> ordemServicoService.entregar(ordemId));
+        OrdemServico ordem = QuarkusTransaction.requiringNew().call(() -> ordemServicoRepository.findById(ordemId));
+        assertEquals(OrdemServico.StatusOrdemServico.RECEBIDA, ordem.getStatus());
+    }
+
+    @Test
+    void atualizarPecaNaoSobrescreveOEstoque() {
+        Long pecaId = criarPeca(10);
+        Long ordemId = criarOrdemComPeca(pecaId, 3);
+
+        // Corpo montado a partir de uma leitura anterior à reserva
+        Peca lida = QuarkusTransaction.requiringNew().call(() -> entityManager.find(Peca.class, pecaId));
+        ordemServicoService.iniciarExecucao(ordemId);
+        pecaService.adicionarEstoque(pecaId, 5);
+
+        lida.setNome(lida.getNome() + " (revisada)");
+        lida.setQuantidadeEstoque(1);
+        pecaService.atualizarPeca(pecaId, lida);
+
+        assertEstoque(pecaId, 15, 3);
+        Peca peca = QuarkusTransaction.requiringNew().call(() -> entityManager.find(Peca.class, pecaId));
+        assertEquals(lida.getNome(), peca.getNome());
+    }
+
+    Long criarOrdem(OrdemServico.StatusOrdemServico status) {
+        long id = IDS.incrementAndGet();
+        QuarkusTransaction.requiringNew().run(() -> {
+            OrdemServico ordem = new OrdemServico(entityManager.find(Cliente.class, clienteId),
+                    entityManager.find(Veiculo.class, veiculoId), "Barulho na suspensão");
+            ordem.setId(id);
+            ordem.setNumeroOS("OS-TESTE-" + id);
+            ordem.setStatus(status);
+            entityManager.persist(ordem);
+        });
+        return id;
+    }
+
+    Long criarServico(BigDecimal valorBase) {
+        long id = IDS.incrementAndGet();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Servico servico = new Servico("Serviço de teste " + id, null, valorBase, Servico.CategoriaServico.MECANICA);
+            servico.setId(id);
+            entityManager.persist(servico);
+        });
+        return id;
+    }
+
+    Long criarPeca(int estoque) {
+        long id = IDS.incrementAndGet();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Peca peca = new Peca("Peça de teste " + id, "TESTE-OS-" + id, new BigDecimal("10.00"), new BigDecimal("20.00"));
+            peca.setId(id);
+            peca.setQuantidadeEstoque(estoque);
+            peca.setQuantidadeMinima(0);
+            entityManager.persist(peca);
+        });
+        return id;
+    }
+
+    private Long criarOrdemComPeca(Long pecaId, int quantidade) {
+        Long ordemId = criarOrdem(OrdemServico.StatusOrdemServico.AGUARDANDO_APROVACAO);
+        AdicionarItensRequest request = new AdicionarItensRequest();
+        request.setItensPeca(List.of(itemPeca(pecaId, quantidade)));
+        ordemServicoService.adicionarItens(ordemId, request);
+        return ordemId;
+    }
+
+    private void assertEstoque(Long pecaId, int estoque, int reservada) {
+        Peca peca = QuarkusTransaction.requiringNew().call(() -> entityManager.find(Peca.class, pecaId));
+        assertEquals(estoque, peca.getQuantidadeEstoque());
+        assertEquals(reservada, peca.getQuantidadeReservada());
+    }
+
+    private void assertSituacaoReserva(Long ordemId, ItemPeca.SituacaoReserva situacao) {
+        List<ItemPeca> itens = QuarkusTransaction.requiringNew()
+                .call(() -> itemPecaRepository.findByOrdemServicoId(ordemId));
+        itens.forEach(item -> assertEquals(situacao, item.getSituacaoReserva()));
+    }
+
+    private static ItemServicoDTO itemServico(Long servicoId, int quantidade) {
+        ItemServicoDTO item = new ItemServicoDTO();
+        item.setServicoId(servicoId);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private static ItemPecaDTO itemPeca(Long pecaId, int quantidade) {
+        ItemPecaDTO item = new ItemPecaDTO();
+        item.setPecaId(pecaId);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+}
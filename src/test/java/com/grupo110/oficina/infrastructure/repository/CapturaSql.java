@@ -0,0 +1,43 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Guarda o SQL gerado pelo Hibernate na thread atual enquanto uma captura está aberta.
+ * Fora de {@link #capturar(Supplier)} não faz nada, então não interfere nos demais testes.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class CapturaSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURADOS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> capturados = CAPTURADOS.get();
+        if (capturados != null) {
+            capturados.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Executa a consulta e devolve os comandos SQL emitidos por ela, na ordem
+     */
+    static List<String> capturar(Supplier<?> consulta) {
+        List<String> capturados = new ArrayList<>();
+        CAPTURADOS.set(capturados);
+        try {
+            consulta.get();
+        } finally {
+            CAPTURADOS.remove();
+        }
+        return capturados;
+    }
+}
@@ -0,0 +1,208 @@
+package com.grupo110.oficina.infrastructure.repository;
+
+import com.grupo110.oficina.domain.model.OrdemServico;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere com EXPLAIN que as consultas de OS e de histórico usam os índices compostos da V4.
+ * O SQL não é escrito à mão: cada teste chama o método real do repositório e captura o comando
+ * que o Hibernate gerou ({@link CapturaSql}). O EXPLAIN roda num H2 em modo MySQL montado com as
+ * migrações que criam essas tabelas e índices (V1 e V4), não no esquema gerado para os testes:
+ * garante que cada índice existe e cobre o predicado da consulta, mas a escolha final do
+ * otimizador do MySQL com dados reais deve ser conferida com EXPLAIN no próprio MySQL.
+ * Nas consultas com ORDER BY o plano do H2 não serve de prova: ele não aproveita a ordem do índice
+ * depois de um prefixo de igualdade e empata com qualquer índice que comece pela mesma coluna.
+ * Nelas o teste confere que o índice começa pelas colunas de igualdade seguidas das colunas da
+ * ordenação, que é o que deixa o MySQL ler na ordem sem filesort.
+ * As listagens com o grafo de resumo (join com cliente e veículo) ficam de fora: nelas o H2
+ * prefere o índice que ele mesmo cria para a chave estrangeira, o que não diz nada sobre o MySQL.
+ */
+@QuarkusTest
+class IndicesOrdemServicoTest {
+
+    private static final Long ID = 1L;
+
+    /** alias.coluna=? no WHERE gerado pelo Hibernate */
+    private static final Pattern IGUALDADE = Pattern.compile("\\w+\\.(\\w+)=\\?");
+
+    /** alias.coluna no ORDER BY gerado pelo Hibernate */
+    private static final Pattern COLUNA = Pattern.compile("\\w+\\.(\\w+)");
+
+    private static Connection conexao;
+
+    @Inject
+    OrdemServicoRepository ordemServicoRepository;
+
+    @Inject
+    HistoricoStatusRepository historicoStatusRepository;
+
+    @BeforeAll
+    static void criarEsquema() throws SQLException, IOException {
+        conexao = DriverManager.getConnection("jdbc:h2:mem:indices;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        executarMigracao("V1__Create_Tables.sql");
+        executarMigracao("V4__Create_Indices_Compostos.sql");
+    }
+
+    @AfterAll
+    static void fechar() throws SQLException {
+        conexao.close();
+    }
+
+    @Test
+    void clienteEStatusUsamIndiceClienteStatus() throws SQLException {
+        assertPlanoUsa(() -> ordemServicoRepository.findByClienteIdAndStatus(ID, OrdemServico.StatusOrdemServico.EM_EXECUCAO),
+                "idx_ordens_servico_cliente_status");
+    }
+
+    @Test
+    void veiculoEStatusUsamIndiceVeiculoStatus() throws SQLException {
+        assertPlanoUsa(() -> ordemServicoRepository.findByVeiculoIdAndStatus(ID, OrdemServico.StatusOrdemServico.EM_EXECUCAO),
+                "idx_ordens_servico_veiculo_status");
+    }
+
+    @Test
+    void ordensDoClientePorRecebimentoUsamIndiceClienteRecebimento() throws SQLException {
+        assertIndiceCobreOrdenacao(() -> ordemServicoRepository.findByClienteIdOrderByDataRecebimentoDesc(ID),
+                "idx_ordens_servico_cliente_recebimento");
+    }
+
+    @Test
+    void execucoesLongasUsamIndiceStatusInicio() throws SQLException {
+        assertPlanoUsa(() -> ordemServicoRepository.findOrdensEmExecucaoAntigas(3), "idx_ordens_servico_status_inicio");
+    }
+
+    @Test
+    void iniciosEmExecucaoUsamIndiceStatusInicio() throws SQLException {
+        assertPlanoUsa(() -> ordemServicoRepository.findIniciosEmExecucao(), "idx_ordens_servico_status_inicio");
+    }
+
+    @Test
+    void filtroPorStatusUsaPrefixoDoIndiceStatusInicio() throws SQLException {
+        assertPlanoUsa(() -> ordemServicoRepository.findByStatus(OrdemServico.StatusOrdemServico.RECEBIDA),
+                "idx_ordens_servico_status_inicio");
+    }
+
+    @Test
+    void atrasadasUsamIndicePrazoStatus() throws SQLException {
+        // Exclui FINALIZADA, ENTREGUE e CANCELADA: o status é conferido no próprio índice
+        assertPlanoUsa(() -> ordemServicoRepository.findOrdensAtrasadas(), "idx_ordens_servico_prazo_status");
+    }
+
+    @Test
+    void historicoDaOrdemPorDataUsaIndiceOrdemData() throws SQLException {
+        assertIndiceCobreOrdenacao(() -> historicoStatusRepository.findByOrdemServicoIdOrderByDataAlteracaoDesc(ID),
+                "idx_historico_status_ordem_data");
+    }
+
+    @Test
+    void historicoPorPeriodoUsaIndiceOrdemData() throws SQLException {
+        LocalDateTime agora = LocalDateTime.now();
+        assertPlanoUsa(() -> historicoStatusRepository.findByOrdemServicoIdAndDataAlteracaoBetween(
+                ID, agora.minusDays(30), agora), "idx_historico_status_ordem_data");
+    }
+
+    /**
+     * Executa a consulta do repositório, captura o SELECT gerado e confere o plano dele
+     */
+    private static void assertPlanoUsa(Supplier<?> consulta, String indice) throws SQLException {
+        String sql = capturarSelect(consulta);
+        try (PreparedStatement statement = conexao.prepareStatement("EXPLAIN " + sql)) {
+            int parametros = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametros; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            try (ResultSet plano = statement.executeQuery()) {
+                plano.next();
+                String texto = plano.getString(1);
+                assertTrue(texto.contains("." + indice + ":"),
+                        () -> "Esperado o índice " + indice + " no plano de:\n" + sql + "\n" + texto);
+            }
+        }
+    }
+
+    /**
+     * Confere que o índice começa pelas colunas comparadas por igualdade (em qualquer ordem)
+     * seguidas das colunas do ORDER BY, na ordem do SELECT gerado
+     */
+    private static void assertIndiceCobreOrdenacao(Supplier<?> consulta, String indice) throws SQLException {
+        String sql = capturarSelect(consulta);
+        String[] partes = sql.split(" order by ");
+        assertEquals(2, partes.length, () -> "Esperado um ORDER BY em:\n" + sql);
+        Set<String> igualdades = new HashSet<>();
+        Matcher igualdade = IGUALDADE.matcher(partes[0].substring(partes[0].indexOf(" where ")));
+        while (igualdade.find()) {
+            igualdades.add(igualdade.group(1));
+        }
+        List<String> ordenacao = new ArrayList<>();
+        Matcher coluna = COLUNA.matcher(partes[1]);
+        while (coluna.find()) {
+            ordenacao.add(coluna.group(1));
+        }
+
+        List<String> colunasIndice = colunasDoIndice(indice);
+        int prefixo = igualdades.size();
+        String mensagem = "Índice " + indice + " " + colunasIndice + " não cobre filtro " + igualdades
+                + " e ordenação " + ordenacao + " de:\n" + sql;
+        assertTrue(colunasIndice.size() >= prefixo + ordenacao.size(), mensagem);
+        assertEquals(igualdades, new HashSet<>(colunasIndice.subList(0, prefixo)), mensagem);
+        assertEquals(ordenacao, colunasIndice.subList(prefixo, prefixo + ordenacao.size()), mensagem);
+    }
+
+    private static String capturarSelect(Supplier<?> consulta) {
+        List<String> comandos = CapturaSql.capturar(() -> QuarkusTransaction.requiringNew().call(consulta::get));
+        assertFalse(comandos.isEmpty(), "A consulta não gerou SQL");
+        return comandos.get(0);
+    }
+
+    private static List<String> colunasDoIndice(String indice) throws SQLException {
+        List<String> colunas = new ArrayList<>();
+        try (PreparedStatement statement = conexao.prepareStatement("SELECT column_name FROM information_schema.index_columns "
+                + "WHERE index_name = ? ORDER BY ordinal_position")) {
+            statement.setString(1, indice);
+            try (ResultSet resultado = statement.executeQuery()) {
+                while (resultado.next()) {
+                    colunas.add(resultado.getString(1));
+                }
+            }
+        }
+        assertFalse(colunas.isEmpty(), () -> "Índice " + indice + " não existe nas migrações");
+        return colunas;
+    }
+
+    private static void executarMigracao(String arquivo) throws SQLException, IOException {
+        try (InputStream script = IndicesOrdemServicoTest.class.getResourceAsStream("/db/migration/" + arquivo);
+             Reader leitor = new InputStreamReader(script, StandardCharsets.UTF_8)) {
+            RunScript.execute(conexao, leitor);
+        }
+    }
+}
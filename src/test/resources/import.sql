@@ -0,0 +1,6 @@
+-- Sequências da V3, V6 e V7, que nos testes não rodam (esquema gerado pelo Hibernate)
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('numero_os', 1);
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('movimentacao_estoque', 1);
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('consolidacao_estoque', 1);
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('item_servico', 1);
+INSERT INTO sequencias (nome, proximo_valor) VALUES ('item_peca', 1);